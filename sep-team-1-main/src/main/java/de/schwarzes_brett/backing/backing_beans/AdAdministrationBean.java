@@ -3,8 +3,8 @@ package de.schwarzes_brett.backing.backing_beans;
 import de.schwarzes_brett.backing.dictionary.Dictionary;
 import de.schwarzes_brett.business_logic.services.AdService;
 import de.schwarzes_brett.dto.AdDTO;
+import de.schwarzes_brett.dto.AdSummary;
 import de.schwarzes_brett.dto.CategoryDTO;
-import de.schwarzes_brett.dto.ImageDTO;
 import de.schwarzes_brett.dto.PaginationDTO;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.context.ExternalContext;
@@ -63,7 +63,7 @@ public class AdAdministrationBean extends PaginationBean implements Notification
     /**
      * The displayed list of ads.
      */
-    private List<AdDTO> listElements;
+    private List<AdSummary> listElements;
 
     /**
      * Default constructor.
@@ -74,18 +74,18 @@ public class AdAdministrationBean extends PaginationBean implements Notification
     /**
      * Getter for ads which will be listed.
      *
-     * @return List of {@code AdDTO}.
+     * @return List of {@code AdSummary}.
      */
-    public List<AdDTO> getListElements() {
+    public List<AdSummary> getListElements() {
         return listElements;
     }
 
     /**
      * Setter for ads which will be listed.
      *
-     * @param listElements List of {@code AdDTO}.
+     * @param listElements List of {@code AdSummary}.
      */
-    public void setListElements(List<AdDTO> listElements) {
+    public void setListElements(List<AdSummary> listElements) {
         this.listElements = listElements;
     }
 
@@ -131,6 +131,7 @@ public class AdAdministrationBean extends PaginationBean implements Notification
      */
     public String onCategoryClick(CategoryDTO category) {
         logger.finest("Fetching ads for the category " + category.getName());
+        selectPagesByNumber();
         getPagination().setCategory(category);
         categoryNavigationBean.setBreadCrumb(category);
         return reload();
@@ -142,22 +143,25 @@ public class AdAdministrationBean extends PaginationBean implements Notification
      * @param ad The ad to be edited.
      * @return The facelet for editing ads.
      */
-    public String editAd(AdDTO ad) {
-        externalContext.getFlash().put("ad", ad);
+    public String editAd(AdSummary ad) {
+        // The edit page fetches the whole ad by its id.
+        AdDTO editedAd = new AdDTO();
+        editedAd.setId(ad.getId());
+        externalContext.getFlash().put("ad", editedAd);
         return "/view/user/editAd";
     }
 
     /**
      * Returns the correct path of the image for the thumbnail.
      *
-     * @param thumbnail The thumbnail you want the image for.
+     * @param thumbnailId The id of the thumbnail you want the image for, or null if the ad has none.
      * @return The correct path for the thumbnail.
      */
-    public String generateThumbnailId(ImageDTO thumbnail) {
-        if (thumbnail.getId() == null) {
+    public String generateThumbnailId(Long thumbnailId) {
+        if (thumbnailId == null) {
             return "/image-default?id=thumbnail";
         } else {
-            return "/image?id=" + thumbnail.getId();
+            return "/image?id=" + thumbnailId;
         }
     }
 
@@ -4,6 +4,7 @@ import de.schwarzes_brett.backing.dictionary.Dictionary;
 import de.schwarzes_brett.backing.session.UserSession;
 import de.schwarzes_brett.business_logic.services.AdService;
 import de.schwarzes_brett.dto.AdDTO;
+import de.schwarzes_brett.dto.AdSummary;
 import de.schwarzes_brett.dto.PaginationDTO;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.context.ExternalContext;
@@ -50,7 +51,7 @@ public class AdManagementBean extends PaginationBean implements NotificationDisp
     /**
      * The displayed list of listItems.
      */
-    private List<AdDTO> listElements;
+    private List<AdSummary> listElements;
 
     /**
      * The {@code Logger} instance to be used in this class.
@@ -85,18 +86,18 @@ public class AdManagementBean extends PaginationBean implements NotificationDisp
     /**
      * Getter for listItems which will be listed.
      *
-     * @return List of {@code AdDTO}.
+     * @return List of {@code AdSummary}.
      */
-    public List<AdDTO> getListElements() {
+    public List<AdSummary> getListElements() {
         return listElements;
     }
 
     /**
      * Setter for listItems which will be listed.
      *
-     * @param listElements List of {@code AdDTO}.
+     * @param listElements List of {@code AdSummary}.
      */
-    public void setListElements(List<AdDTO> listElements) {
+    public void setListElements(List<AdSummary> listElements) {
         this.listElements = listElements;
     }
 
@@ -138,8 +139,10 @@ public class AdManagementBean extends PaginationBean implements NotificationDisp
      * @param ad The ad that should be edited.
      * @return The facelet for editing listItems.
      */
-    public String editAd(AdDTO ad) {
-        externalContext.getFlash().put("ad", ad);
+    public String editAd(AdSummary ad) {
+        AdDTO editedAd = new AdDTO();
+        editedAd.setId(ad.getId());
+        externalContext.getFlash().put("ad", editedAd);
         return "/view/user/editAd";
     }
 }
@@ -4,9 +4,8 @@ import de.schwarzes_brett.backing.dictionary.Dictionary;
 import de.schwarzes_brett.backing.util.NotificationHelper;
 import de.schwarzes_brett.business_logic.notification.NotificationContext;
 import de.schwarzes_brett.business_logic.services.AdService;
-import de.schwarzes_brett.dto.AdDTO;
+import de.schwarzes_brett.dto.AdSummary;
 import de.schwarzes_brett.dto.CategoryDTO;
-import de.schwarzes_brett.dto.ImageDTO;
 import de.schwarzes_brett.dto.PaginationDTO;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.view.ViewScoped;
@@ -55,7 +54,7 @@ public class LandingBean extends PaginationBean implements Serializable, Notific
     /**
      * The displayed list of ads.
      */
-    private List<AdDTO> listElements;
+    private List<AdSummary> listElements;
 
     /**
      * The {@code Logger} instance to be used in this class.
@@ -81,18 +80,18 @@ public class LandingBean extends PaginationBean implements Serializable, Notific
     /**
      * Getter for ads which will be listed.
      *
-     * @return List of {@code AdDTO}.
+     * @return List of {@code AdSummary}.
      */
-    public List<AdDTO> getListElements() {
+    public List<AdSummary> getListElements() {
         return listElements;
     }
 
     /**
      * Setter for ads which will be listed.
      *
-     * @param listElements List of {@code AdDTO}.
+     * @param listElements List of {@code AdSummary}.
      */
-    public void setListElements(List<AdDTO> listElements) {
+    public void setListElements(List<AdSummary> listElements) {
         this.listElements = listElements;
     }
 
@@ -131,6 +130,7 @@ public class LandingBean extends PaginationBean implements Serializable, Notific
      */
     public String onCategoryClick(CategoryDTO category) {
         logger.finest("Fetching ads for the category " + category.getName());
+        selectPagesByNumber();
         getPagination().setCategory(category);
         categoryNavigationBean.setBreadCrumb(category);
         return reload();
@@ -139,14 +139,14 @@ public class LandingBean extends PaginationBean implements Serializable, Notific
     /**
      * Returns the correct path of the image for the thumbnail.
      *
-     * @param thumbnail The thumbnail you want the image for.
+     * @param thumbnailId The id of the thumbnail you want the image for, or null if the ad has none.
      * @return The correct path for the thumbnail.
      */
-    public String generateThumbnailId(ImageDTO thumbnail) {
-        if (thumbnail.getId() == null) {
+    public String generateThumbnailId(Long thumbnailId) {
+        if (thumbnailId == null) {
             return "/image-default?id=thumbnail";
         } else {
-            return "/image?id=" + thumbnail.getId();
+            return "/image?id=" + thumbnailId;
         }
     }
 }
@@ -1,10 +1,13 @@
 package de.schwarzes_brett.backing.backing_beans;
 
+import de.schwarzes_brett.backing.session.UserSession;
+import de.schwarzes_brett.dto.PageCursor;
 import de.schwarzes_brett.dto.PaginationDTO;
 import jakarta.inject.Inject;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -17,6 +20,8 @@ public abstract class PaginationBean implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    private static final List<Integer> RADII = List.of(5, 10, 25, 50, 100);
+
     /**
      * The current pagination information.
      */
@@ -28,6 +33,12 @@ public abstract class PaginationBean implements Serializable {
     @Inject
     private transient Logger logger;
 
+    /**
+     * The session of the current user.
+     */
+    @Inject
+    private UserSession userSession;
+
     /**
      * Default constructor.
      */
@@ -58,6 +69,8 @@ public abstract class PaginationBean implements Serializable {
      * @return The corresponding facelet for the next pagination page.
      */
     public String goToNextPage() {
+        pagination.getPreviousCursors().add(pagination.getCursor());
+        pagination.setCursor(pagination.getNextCursor());
         pagination.setPageNumber(pagination.getPageNumber() + 1);
         return reload();
     }
@@ -68,6 +81,8 @@ public abstract class PaginationBean implements Serializable {
      * @return The corresponding facelet for the previous pagination page.
      */
     public String goToPrevPage() {
+        List<PageCursor> previousCursors = pagination.getPreviousCursors();
+        pagination.setCursor(previousCursors.isEmpty() ? null : previousCursors.remove(previousCursors.size() - 1));
         pagination.setPageNumber(pagination.getPageNumber() - 1);
         return reload();
     }
@@ -78,6 +93,7 @@ public abstract class PaginationBean implements Serializable {
      * @return The corresponding facelet for the first pagination page.
      */
     public String goToFirstPage() {
+        selectPagesByNumber();
         pagination.setPageNumber(1);
         return reload();
     }
@@ -88,6 +104,7 @@ public abstract class PaginationBean implements Serializable {
      * @return The corresponding facelet for the last pagination page.
      */
     public String goToLastPage() {
+        selectPagesByNumber();
         pagination.setPageNumber(pagination.getLastPageNumber());
         return reload();
     }
@@ -98,6 +115,7 @@ public abstract class PaginationBean implements Serializable {
      * @return The corresponding facelet for a selected pagination page.
      */
     public String goToSelectedPage() {
+        selectPagesByNumber();
         return reload();
     }
 
@@ -108,6 +126,7 @@ public abstract class PaginationBean implements Serializable {
      * @return The corresponding facelet for the sorted pagination list.
      */
     public String sort(String sortBy) {
+        selectPagesByNumber();
         logger.finest("Sorting by " + sortBy);
         if (pagination.getSortBy().equals(sortBy)) {
             logger.finest("Toggle direction ascending " + pagination.isSortAscending());
@@ -117,6 +136,39 @@ public abstract class PaginationBean implements Serializable {
         return reload();
     }
 
+    /**
+     * Gets called when the user wants to sort the list by how well the elements match the search term, best matches first.
+     *
+     * @return The corresponding facelet for the sorted pagination list.
+     */
+    public String sortByRelevance() {
+        selectPagesByNumber();
+        pagination.setSortBy(PaginationDTO.SORT_BY_RELEVANCE);
+        pagination.setSortAscending(false);
+        return reload();
+    }
+
+    /**
+     * Gets called when the user wants to sort the list by the distance from the location of a radius search, nearest first.
+     *
+     * @return The corresponding facelet for the sorted pagination list.
+     */
+    public String sortByDistance() {
+        selectPagesByNumber();
+        pagination.setSortBy(PaginationDTO.SORT_BY_DISTANCE);
+        pagination.setSortAscending(true);
+        return reload();
+    }
+
+    /**
+     * Returns the radii in kilometres the user can search within around a location.
+     *
+     * @return The selectable radii.
+     */
+    public List<Integer> getRadii() {
+        return RADII;
+    }
+
     /**
      * Returns if previous button is enabled.
      *
@@ -127,14 +179,32 @@ public abstract class PaginationBean implements Serializable {
     }
 
     /**
-     * Returns if next button is enabled.
+     * Returns if next button is enabled. While the last page number is estimated, it is enabled as long as the current page is full, so the
+     * pages beyond the estimated last page stay reachable.
      *
      * @return If next button is enabled.
      */
     public boolean nextButtonEnabled() {
+        if (pagination.isLastPageNumberEstimated() && pagination.getNextCursor() != null) {
+            return false;
+        }
         return pagination.getPageNumber() >= pagination.getLastPageNumber();
     }
 
+    /**
+     * Returns the last page number as it is shown to the user. An estimated number is marked as approximate, or as a lower bound if it was
+     * capped.
+     *
+     * @return The label of the last page number.
+     */
+    public String getLastPageLabel() {
+        int lastPageNumber = pagination.getLastPageNumber();
+        if (!pagination.isLastPageNumberEstimated()) {
+            return String.valueOf(lastPageNumber);
+        }
+        return lastPageNumber >= PaginationDTO.MAX_ESTIMATED_LAST_PAGE_NUMBER ? lastPageNumber + "+" : "~" + lastPageNumber;
+    }
+
     /**
      * Returns the title of the header with the sort direction if the sortableHeader is sorted by.
      *
@@ -169,10 +239,21 @@ public abstract class PaginationBean implements Serializable {
      * @return The corresponding facelet for searching a list.
      */
     public String search() {
+        selectPagesByNumber();
         logger.finest("Searching for: " + getPagination().getSearch().getSearchTerm());
+        getPagination().getSearch().setLocale(userSession.getLocale());
         return reload();
     }
 
+    /**
+     * Drops the positions of the pages, so the next pages are selected by their number again. Must be called before the listing changes,
+     * since the positions only apply to the listing they were read from.
+     */
+    protected void selectPagesByNumber() {
+        pagination.setCursor(null);
+        pagination.getPreviousCursors().clear();
+    }
+
     /**
      * Reloads the bean.
      *
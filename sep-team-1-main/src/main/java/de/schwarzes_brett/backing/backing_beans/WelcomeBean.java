@@ -3,8 +3,7 @@ package de.schwarzes_brett.backing.backing_beans;
 import de.schwarzes_brett.backing.dictionary.Dictionary;
 import de.schwarzes_brett.backing.session.UserSession;
 import de.schwarzes_brett.business_logic.services.AdService;
-import de.schwarzes_brett.dto.AdDTO;
-import de.schwarzes_brett.dto.ImageDTO;
+import de.schwarzes_brett.dto.AdSummary;
 import de.schwarzes_brett.dto.PaginationDTO;
 import jakarta.annotation.PostConstruct;
 import jakarta.faces.view.ViewScoped;
@@ -44,7 +43,7 @@ public class WelcomeBean extends PaginationBean implements Serializable, Notific
     /**
      * The displayed list of ads.
      */
-    private List<AdDTO> listElements;
+    private List<AdSummary> listElements;
 
     /**
      * The {@code Logger} instance to be used in this class.
@@ -75,7 +74,7 @@ public class WelcomeBean extends PaginationBean implements Serializable, Notific
      *
      * @return The list of ads shown on the welcome page.
      */
-    public List<AdDTO> getListElements() {
+    public List<AdSummary> getListElements() {
         return listElements;
     }
 
@@ -84,7 +83,7 @@ public class WelcomeBean extends PaginationBean implements Serializable, Notific
      *
      * @param listElements The ads which get shown on the welcome page
      */
-    public void setListElements(List<AdDTO> listElements) {
+    public void setListElements(List<AdSummary> listElements) {
         this.listElements = listElements;
     }
 
@@ -143,6 +142,7 @@ public class WelcomeBean extends PaginationBean implements Serializable, Notific
      */
     public String changeSelection(AdSelection selection) {
         logger.finest("Fetching ads for the new selection.");
+        selectPagesByNumber();
         this.selection = selection;
         return reload();
     }
@@ -150,14 +150,14 @@ public class WelcomeBean extends PaginationBean implements Serializable, Notific
     /**
      * Returns the correct path of the image for the thumbnail.
      *
-     * @param thumbnail The thumbnail you want the image for.
+     * @param thumbnailId The id of the thumbnail you want the image for, or null if the ad has none.
      * @return The correct path for the thumbnail.
      */
-    public String getGenerateThumbnailId(ImageDTO thumbnail) {
-        if (thumbnail.getId() == null) {
+    public String getGenerateThumbnailId(Long thumbnailId) {
+        if (thumbnailId == null) {
             return "/image-default?id=thumbnail";
         } else {
-            return "/image?id=" + thumbnail.getId();
+            return "/image?id=" + thumbnailId;
         }
     }
 
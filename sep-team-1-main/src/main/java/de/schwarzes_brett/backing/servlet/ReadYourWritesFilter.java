@@ -0,0 +1,60 @@
+package de.schwarzes_brett.backing.servlet;
+
+import de.schwarzes_brett.data_access.transaction.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+import java.io.IOException;
+import java.io.Serial;
+
+/**
+ * Keeps the time of the last write of a session in the session, so the session reads its own writes from the primary database instead of
+ * the read replica for a short time.
+ */
+@WebFilter("/*")
+public class ReadYourWritesFilter extends HttpFilter {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final String LAST_WRITE_ATTRIBUTE = "lastWriteMillis";
+
+    /**
+     * Default constructor.
+     */
+    public ReadYourWritesFilter() {}
+
+    /**
+     * Binds the time of the last write of the session to the request and stores it in the session again if the request wrote.
+     *
+     * @param request  The current request.
+     * @param response The current response.
+     * @param chain    The remaining filter chain.
+     * @throws IOException      If the request could not be processed.
+     * @throws ServletException If the request could not be processed.
+     */
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws IOException, ServletException {
+        HttpSession session = request.getSession(false);
+        Long lastWrite = session == null ? null : (Long) session.getAttribute(LAST_WRITE_ATTRIBUTE);
+        ReadYourWrites.begin(lastWrite);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Long newLastWrite = ReadYourWrites.end();
+            if (newLastWrite != null && !newLastWrite.equals(lastWrite)) {
+                // The session could have been created or invalidated while processing the request.
+                session = request.getSession(false);
+                if (session != null) {
+                    session.setAttribute(LAST_WRITE_ATTRIBUTE, newLastWrite);
+                }
+            }
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import de.schwarzes_brett.data_access.exception.DataStorageAccessException;
 import de.schwarzes_brett.data_access.transaction.Transaction;
 import de.schwarzes_brett.data_access.transaction.TransactionFactory;
 import de.schwarzes_brett.dto.AdDTO;
+import de.schwarzes_brett.dto.AdSummary;
 import de.schwarzes_brett.dto.ImageDTO;
 import de.schwarzes_brett.dto.PaginationDTO;
 import de.schwarzes_brett.dto.Role;
@@ -36,6 +37,12 @@ public class AdService implements Serializable {
     @Inject
     private transient Logger logger;
 
+    /**
+     * The read-only transaction shared in the current request.
+     */
+    @Inject
+    private UnitOfWork unitOfWork;
+
     /**
      * Default constructor.
      */
@@ -138,7 +145,7 @@ public class AdService implements Serializable {
      * @author Jonas Elsper
      */
     public void fetchAd(AdDTO ad, UserDTO user) {
-        Transaction trans = TransactionFactory.produce();
+        Transaction trans = unitOfWork.readOnly();
         try {
             Integer id = user.getId();
             boolean isAdmin = user.getRole() != null && user.getRole().equals(Role.ADMIN);
@@ -177,14 +184,13 @@ public class AdService implements Serializable {
      * @return List of ads from the user.
      * @author Jonas Elsper
      */
-    public List<AdDTO> fetchAdsFromUser(PaginationDTO pagination, UserDTO user) {
+    public List<AdSummary> fetchAdsFromUser(PaginationDTO pagination, UserDTO user) {
         checkSortByNotNull(pagination);
-        List<AdDTO> ads;
+        List<AdSummary> ads;
         logger.fine("Fetching Ads from the DAO started.");
-        Transaction transaction = TransactionFactory.produce();
+        Transaction transaction = unitOfWork.readOnly();
         try {
             ads = DAOFactory.getAdDAO(transaction).fetchAdsFromUser(pagination, user);
-            pagination.setLastPageNumber(DAOFactory.getAdDAO(transaction).fetchOwnAdsLastPageNumber(pagination, user));
             logger.fine("Fetching Ads from the DAO finished.");
             transaction.commit();
         } catch (DataStorageAccessException e) {
@@ -204,14 +210,13 @@ public class AdService implements Serializable {
      * @return List of ads for the landing page.
      * @author michaelgruener
      */
-    public List<AdDTO> fetchAds(PaginationDTO pagination) {
+    public List<AdSummary> fetchAds(PaginationDTO pagination) {
         checkSortByNotNull(pagination);
-        List<AdDTO> ads;
+        List<AdSummary> ads;
         logger.fine("Fetching Ads from the DAO started.");
-        Transaction transaction = TransactionFactory.produce();
+        Transaction transaction = unitOfWork.readOnly();
         try {
             ads = DAOFactory.getAdDAO(transaction).fetchAds(pagination);
-            pagination.setLastPageNumber(DAOFactory.getAdDAO(transaction).fetchLastPageNumber(pagination));
             logger.fine("Fetching Ads from the DAO finished.");
             transaction.commit();
         } catch (DataStorageAccessException e) {
@@ -231,14 +236,13 @@ public class AdService implements Serializable {
      * @return List of ads for the landing page.
      * @author Valentin Damjantschitsch
      */
-    public List<AdDTO> fetchAllAds(PaginationDTO pagination) {
+    public List<AdSummary> fetchAllAds(PaginationDTO pagination) {
         checkSortByNotNull(pagination);
-        List<AdDTO> ads;
+        List<AdSummary> ads;
         logger.fine("Fetching Ads from the DAO started.");
-        Transaction transaction = TransactionFactory.produce();
+        Transaction transaction = unitOfWork.readOnly();
         try {
             ads = DAOFactory.getAdDAO(transaction).fetchAdsWithUnreleased(pagination);
-            pagination.setLastPageNumber(DAOFactory.getAdDAO(transaction).fetchLastPageNumberWithUnreleased(pagination));
             logger.fine("Fetching Ads from the DAO finished.");
             transaction.commit();
         } catch (DataStorageAccessException e) {
@@ -259,14 +263,13 @@ public class AdService implements Serializable {
      * @return List of ads to display.
      * @author Jonas Elsper
      */
-    public List<AdDTO> fetchFollowedAds(PaginationDTO pagination, UserDTO user) {
+    public List<AdSummary> fetchFollowedAds(PaginationDTO pagination, UserDTO user) {
         checkSortByNotNull(pagination);
-        List<AdDTO> ads;
+        List<AdSummary> ads;
         logger.fine("Fetching Ads from the DAO started.");
-        Transaction transaction = TransactionFactory.produce();
+        Transaction transaction = unitOfWork.readOnly();
         try {
             ads = DAOFactory.getAdDAO(transaction).fetchFollowedAds(pagination, user);
-            pagination.setLastPageNumber(DAOFactory.getAdDAO(transaction).fetchFollowedAdsLastPageNumber(pagination, user));
             logger.fine("Fetching Ads from the DAO finished.");
             transaction.commit();
         } catch (DataStorageAccessException e) {
@@ -287,14 +290,13 @@ public class AdService implements Serializable {
      * @return List of ads to display.
      * @author Jonas Elsper
      */
-    public List<AdDTO> fetchCommentedAds(PaginationDTO pagination, UserDTO user) {
+    public List<AdSummary> fetchCommentedAds(PaginationDTO pagination, UserDTO user) {
         checkSortByNotNull(pagination);
-        List<AdDTO> ads;
+        List<AdSummary> ads;
         logger.fine("Fetching Ads from the DAO started.");
-        Transaction transaction = TransactionFactory.produce();
+        Transaction transaction = unitOfWork.readOnly();
         try {
             ads = DAOFactory.getAdDAO(transaction).fetchCommentedAds(pagination, user);
-            pagination.setLastPageNumber(DAOFactory.getAdDAO(transaction).fetchCommentedAdsLastPageNumber(pagination, user));
             logger.fine("Fetching Ads from the DAO finished.");
             transaction.commit();
         } catch (DataStorageAccessException e) {
@@ -315,7 +317,7 @@ public class AdService implements Serializable {
      * @author Jonas Elsper
      */
     public boolean isIdValid(AdDTO ad) {
-        Transaction trans = TransactionFactory.produce();
+        Transaction trans = unitOfWork.readOnly();
         try {
             boolean isValid = DAOFactory.getAdDAO(trans).isAdIdValid(ad);
             if (!isValid) {
@@ -29,6 +29,12 @@ public class ApplicationSettingsService implements Serializable {
     @Inject
     private transient Logger logger;
 
+    /**
+     * The read-only transaction shared in the current request.
+     */
+    @Inject
+    private UnitOfWork unitOfWork;
+
     /**
      * Default constructor.
      */
@@ -75,7 +81,7 @@ public class ApplicationSettingsService implements Serializable {
      */
     public void fetchImprint(ApplicationSettingsDTO settings) {
         logger.fine("Fetching imprint.");
-        try (Transaction transaction = TransactionFactory.produce()) {
+        try (Transaction transaction = unitOfWork.readOnly()) {
             DAOFactory.getApplicationSettingsDAO(transaction).fetchImprint(settings);
             transaction.commit();
         }
@@ -89,7 +95,7 @@ public class ApplicationSettingsService implements Serializable {
      */
     public void fetchPrivacy(ApplicationSettingsDTO settings) {
         logger.fine("Fetching privacy.");
-        try (Transaction transaction = TransactionFactory.produce()) {
+        try (Transaction transaction = unitOfWork.readOnly()) {
             DAOFactory.getApplicationSettingsDAO(transaction).fetchPrivacy(settings);
             transaction.commit();
         }
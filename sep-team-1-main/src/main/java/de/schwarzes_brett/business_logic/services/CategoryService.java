@@ -32,6 +32,12 @@ public class CategoryService implements Serializable {
     @Inject
     private transient Logger logger;
 
+    /**
+     * The read-only transaction shared in the current request.
+     */
+    @Inject
+    private UnitOfWork unitOfWork;
+
     /**
      * Default constructor.
      */
@@ -92,7 +98,7 @@ public class CategoryService implements Serializable {
         logger.fine("Fetching root categories.");
 
         List<CategoryDTO> categories;
-        try (Transaction transaction = TransactionFactory.produce()) {
+        try (Transaction transaction = unitOfWork.readOnly()) {
             categories = DAOFactory.getCategoryDAO(transaction).fetchRootCategories();
             transaction.commit();
         }
@@ -109,7 +115,7 @@ public class CategoryService implements Serializable {
         logger.log(Level.FINE, "Fetching sub-categories.");
 
         List<CategoryDTO> categories;
-        try (Transaction transaction = TransactionFactory.produce()) {
+        try (Transaction transaction = unitOfWork.readOnly()) {
             categories = DAOFactory.getCategoryDAO(transaction).fetchSubCategories(category);
             transaction.commit();
         }
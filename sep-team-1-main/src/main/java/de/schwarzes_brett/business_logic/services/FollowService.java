@@ -34,6 +34,12 @@ public class FollowService implements Serializable {
     @Inject
     private transient Logger logger;
 
+    /**
+     * The read-only transaction shared in the current request.
+     */
+    @Inject
+    private UnitOfWork unitOfWork;
+
     /**
      * The notification storage.
      */
@@ -136,7 +142,7 @@ public class FollowService implements Serializable {
      */
     public boolean isAdFollowed(AdDTO ad, UserDTO user) {
         if (ad != null && user != null) {
-            try (Transaction t = TransactionFactory.produce()) {
+            try (Transaction t = unitOfWork.readOnly()) {
                 boolean result = DAOFactory.getFollowDAO(t).isAdFollowed(ad, user);
                 t.commit();
                 return result;
@@ -155,7 +161,7 @@ public class FollowService implements Serializable {
      */
     public boolean isUserFollowed(UserDTO adCreator, UserDTO user) {
         if (adCreator != null && user != null) {
-            try (Transaction t = TransactionFactory.produce()) {
+            try (Transaction t = unitOfWork.readOnly()) {
                 boolean result = DAOFactory.getFollowDAO(t).isUserFollowed(adCreator, user);
                 t.commit();
                 return result;
@@ -30,6 +30,12 @@ public class ImageService implements Serializable {
     @Inject
     private transient Logger logger;
 
+    /**
+     * The read-only transaction shared in the current request.
+     */
+    @Inject
+    private UnitOfWork unitOfWork;
+
     /**
      * Default constructor.
      */
@@ -43,7 +49,7 @@ public class ImageService implements Serializable {
      */
     public boolean fetchImage(ImageDTO image) {
         logger.finest("Fetching image " + image.getId() + ".");
-        try (Transaction transaction = TransactionFactory.produce()) {
+        try (Transaction transaction = unitOfWork.readOnly()) {
             if (DAOFactory.getImageDAO(transaction).imageExists(image)) {
                 DAOFactory.getImageDAO(transaction).fetchImage(image);
                 transaction.commit();
@@ -41,6 +41,12 @@ public class RatingService implements Serializable {
     @Inject
     private transient Logger logger;
 
+    /**
+     * The read-only transaction shared in the current request.
+     */
+    @Inject
+    private UnitOfWork unitOfWork;
+
     /**
      * Default constructor.
      */
@@ -101,7 +107,7 @@ public class RatingService implements Serializable {
      * @param rating The rating.
      */
     public void fetchRating(RatingDTO rating) {
-        try (Transaction transaction = TransactionFactory.produce()) {
+        try (Transaction transaction = unitOfWork.readOnly()) {
             logger.fine("Start of fetching rating.");
             DAOFactory.getRatingDAO(transaction).fetchRating(rating);
             transaction.commit();
@@ -0,0 +1,57 @@
+package de.schwarzes_brett.business_logic.services;
+
+import de.schwarzes_brett.data_access.transaction.Transaction;
+import de.schwarzes_brett.data_access.transaction.TransactionFactory;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.RequestScoped;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Shares one read-only transaction between all read-only service calls of a request, so a request borrows at most one connection for
+ * reading. The connection is borrowed when it is needed first and released at the end of the request. Write transactions are not shared and
+ * are still produced explicitly by the services. If a write transaction needs a connection of the same pool, the shared connection is handed
+ * back between two reads, so a request never holds two connections of the primary database.
+ */
+@RequestScoped
+public class UnitOfWork implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The read-only transaction shared in the current request.
+     */
+    private transient Transaction readOnlyTransaction;
+
+    /**
+     * Default constructor.
+     */
+    public UnitOfWork() {}
+
+    /**
+     * Returns the read-only transaction of the current request. Callers end their use with {@code commit()} or {@code abort()} as for any
+     * other transaction.
+     *
+     * @return The shared read-only transaction.
+     */
+    public Transaction readOnly() {
+        if (readOnlyTransaction == null) {
+            readOnlyTransaction = TransactionFactory.produceSharedReadOnly();
+        }
+        return readOnlyTransaction;
+    }
+
+    /**
+     * Releases the connection of the shared transaction at the end of the request.
+     */
+    @PreDestroy
+    public void end() {
+        if (readOnlyTransaction != null) {
+            TransactionFactory.releaseShared(readOnlyTransaction);
+            readOnlyTransaction = null;
+        }
+    }
+
+}
@@ -70,6 +70,11 @@ public class UserService implements Serializable {
      */
     @Inject
     private transient Logger logger;
+    /**
+     * The read-only transaction shared in the current request.
+     */
+    @Inject
+    private UnitOfWork unitOfWork;
     /**
      * The service used for password hashing.
      */
@@ -374,7 +379,7 @@ public class UserService implements Serializable {
      */
     public boolean isEmailUnique(String email) {
         boolean unique;
-        try (Transaction t = TransactionFactory.produce()) {
+        try (Transaction t = unitOfWork.readOnly()) {
             unique = DAOFactory.getUserDAO(t).isEmailUnique(email);
             t.commit();
         }
@@ -441,7 +446,7 @@ public class UserService implements Serializable {
         }
         logger.fine("Fetching Users.");
         List<UserDTO> users;
-        try (Transaction transaction = TransactionFactory.produce()) {
+        try (Transaction transaction = unitOfWork.readOnly()) {
             users = DAOFactory.getUserDAO(transaction).fetchUsers(pagination);
             pagination.setLastPageNumber(DAOFactory.getUserDAO(transaction).fetchLastPageNumber(pagination));
             transaction.commit();
@@ -503,7 +508,7 @@ public class UserService implements Serializable {
         if (username == null) {
             return false;
         }
-        try (Transaction t = TransactionFactory.produce()) {
+        try (Transaction t = unitOfWork.readOnly()) {
             boolean ret = DAOFactory.getUserDAO(t).doesUserExist(username);
             t.commit();
             return ret;
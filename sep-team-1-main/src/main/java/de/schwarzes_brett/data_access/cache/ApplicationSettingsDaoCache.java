@@ -37,12 +37,14 @@ public final class ApplicationSettingsDaoCache extends DAOCache<ApplicationSetti
     }
 
     /**
-     * Setter for the stored value of the application Settings. Is valid until the cache time for this class has passed.
+     * Setter for the stored value of the application Settings. Is valid until the cache time for this class has passed. The value is not stored
+     * if the settings were invalidated after they were read.
      *
-     * @param value New value for the application settings.
+     * @param value       New value for the application settings.
+     * @param readVersion The cache version that was current before the settings were read.
      */
-    public void setValue(ApplicationSettingsDTO value) {
-        super.setValue(ID, value);
+    public void setValue(ApplicationSettingsDTO value, long readVersion) {
+        super.setValue(ID, value, readVersion);
     }
 
     /**
@@ -3,9 +3,86 @@ package de.schwarzes_brett.data_access.cache;
 /**
  * Used to store values in a cache with a time indicating if the stored value is still valid.
  *
- * @param <T>           Type of the objects that are stored.
- * @param insertionTime Time of insertion in milliseconds.
- * @param dto           Value to be stored.
+ * @param <T> Type of the objects that are stored.
  * @author Daniel Lipp
  */
-record CacheDTO<T>(long insertionTime, T dto) {}
+final class CacheDTO<T> {
+
+    private final Integer key;
+    private final long insertionTime;
+    private final long version;
+    private final T dto;
+    private volatile boolean accessed;
+
+    /**
+     * Creates a new cache entry.
+     *
+     * @param key           Key under which the value is stored.
+     * @param insertionTime Time of insertion in milliseconds.
+     * @param version       Cache version of the last invalidation of the key.
+     * @param dto           Value to be stored, {@code null} if the key was invalidated.
+     */
+    CacheDTO(Integer key, long insertionTime, long version, T dto) {
+        this.key = key;
+        this.insertionTime = insertionTime;
+        this.version = version;
+        this.dto = dto;
+    }
+
+    /**
+     * Getter for the key under which the value is stored.
+     *
+     * @return The key of this entry.
+     */
+    Integer key() {
+        return key;
+    }
+
+    /**
+     * Getter for the time of insertion.
+     *
+     * @return Time of insertion in milliseconds.
+     */
+    long insertionTime() {
+        return insertionTime;
+    }
+
+    /**
+     * Getter for the cache version of the last invalidation of the key.
+     *
+     * @return The version of this entry.
+     */
+    long version() {
+        return version;
+    }
+
+    /**
+     * Getter for the stored value.
+     *
+     * @return The stored value, {@code null} if the key was invalidated.
+     */
+    T dto() {
+        return dto;
+    }
+
+    /**
+     * Marks this entry as accessed since the eviction last passed it.
+     */
+    void markAccessed() {
+        // Only write if needed, so frequent reads of the same entry do not contend on its cache line.
+        if (!accessed) {
+            accessed = true;
+        }
+    }
+
+    /**
+     * Clears the access mark of this entry.
+     *
+     * @return Whether the entry was accessed since the eviction last passed it.
+     */
+    boolean clearAccessed() {
+        boolean wasAccessed = accessed;
+        accessed = false;
+        return wasAccessed;
+    }
+}
@@ -0,0 +1,213 @@
+package de.schwarzes_brett.data_access.cache;
+
+import de.schwarzes_brett.data_access.config.Config;
+import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+import de.schwarzes_brett.data_access.exception.DataStorageUnavailableException;
+import de.schwarzes_brett.logging.LoggerProducer;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the caches of multiple application nodes that share one database consistent. Invalidations are published with {@code NOTIFY} in the
+ * transaction that changed the data, so they are only delivered if it commits. Every node listens on a dedicated connection and removes the
+ * affected entries from its caches.
+ * <p>
+ * Notifications that are sent while the listener is disconnected are lost, so all caches are cleared when it reconnects.
+ */
+public final class CacheInvalidationBus {
+
+    /**
+     * The name of the user cache in invalidation messages.
+     */
+    public static final String USER_CACHE = "user";
+
+    /**
+     * The name of the application settings cache in invalidation messages.
+     */
+    public static final String SETTINGS_CACHE = "settings";
+
+    private static final String CHANNEL = "cache_invalidation";
+    private static final String ALL_KEYS = "*";
+    private static final String DEFAULT_ENABLED = "false";
+    private static final int POLL_MILLIS = 500;
+    private static final long RETRY_MILLIS = 5000;
+    private static final CacheInvalidationBus INSTANCE = new CacheInvalidationBus();
+    private final Logger logger = LoggerProducer.get(CacheInvalidationBus.class);
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, DAOCache<?>> caches = Map.of(USER_CACHE, UserDaoCache.getInstance(),
+                                                           SETTINGS_CACHE, ApplicationSettingsDaoCache.getInstance());
+    private volatile boolean enabled;
+    private Thread listener;
+    private volatile Connection listenerConnection;
+
+    private CacheInvalidationBus() {}
+
+    /**
+     * Getter for the bus instance.
+     *
+     * @return The bus instance.
+     */
+    public static CacheInvalidationBus getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts listening for invalidations of other nodes if the bus is enabled in the configuration.
+     */
+    public synchronized void init() {
+        enabled = Boolean.parseBoolean(Config.getInstance().get("DB_CACHE_INVALIDATION", DEFAULT_ENABLED));
+        if (!enabled || listener != null) {
+            return;
+        }
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+        logger.fine("Listening for cache invalidations of other nodes.");
+    }
+
+    /**
+     * Stops listening for invalidations.
+     */
+    public synchronized void destroy() {
+        enabled = false;
+        if (listener != null) {
+            // Closing the connection wakes the listener if it is waiting for notifications.
+            closeListenerConnection();
+            listener.interrupt();
+            try {
+                listener.join(2 * POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            listener = null;
+        }
+    }
+
+    /**
+     * Publishes the invalidation of the given keys to the other nodes. Must be called with the connection of the transaction that changed the
+     * data, before it is committed.
+     *
+     * @param connection The connection of the changing transaction.
+     * @param cache      The name of the cache whose entries are invalidated.
+     * @param keys       The invalidated keys, all entries of the cache are invalidated if it is empty.
+     * @throws SQLException If the invalidation could not be published.
+     */
+    public void publish(Connection connection, String cache, Collection<Integer> keys) throws SQLException {
+        if (!enabled) {
+            return;
+        }
+        String keyList = keys.isEmpty() ? ALL_KEYS : keys.stream().map(String::valueOf).distinct().collect(Collectors.joining(","));
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?);")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, nodeId + ":" + cache + ":" + keyList);
+            statement.execute();
+        }
+    }
+
+    /**
+     * Listens for invalidations until the bus is destroyed and reconnects if the connection is lost.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private void listen() {
+        boolean reconnect = false;
+        while (enabled) {
+            try (Connection connection = ConnectionPoolPsql.getInstance().createDedicatedConnection()) {
+                listenerConnection = connection;
+                if (!enabled) {
+                    return;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL + ";");
+                }
+                if (reconnect) {
+                    logger.info("Reconnected the cache invalidation listener, clearing all caches.");
+                    caches.values().forEach(DAOCache::deleteAllValues);
+                }
+                reconnect = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (enabled) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | DataStorageUnavailableException e) {
+                if (!awaitReconnect("The cache invalidation listener lost its connection.", e)) {
+                    return;
+                }
+                reconnect = true;
+            } catch (RuntimeException e) {
+                if (!awaitReconnect("The cache invalidation listener failed to apply an invalidation.", e)) {
+                    return;
+                }
+                reconnect = true;
+            }
+        }
+    }
+
+    /**
+     * Logs the failure of the listener and waits before it reconnects. Returns whether the listener should reconnect.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private boolean awaitReconnect(String message, Exception e) {
+        if (!enabled) {
+            return false;
+        }
+        logger.log(Level.WARNING, message, e);
+        try {
+            Thread.sleep(RETRY_MILLIS);
+        } catch (InterruptedException interrupted) {
+            return false;
+        }
+        return true;
+    }
+
+    private void closeListenerConnection() {
+        Connection connection = listenerConnection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "The cache invalidation listener connection could not be closed.", e);
+            }
+        }
+    }
+
+    /**
+     * Removes the entries named in an invalidation message from the local cache, unless the message was sent by this node.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private void handle(String message) {
+        String[] parts = message.split(":", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        DAOCache<?> cache = caches.get(parts[1]);
+        if (cache == null) {
+            logger.warning("Received an invalidation for the unknown cache " + parts[1] + ".");
+        } else if (parts[2].equals(ALL_KEYS)) {
+            cache.deleteAllValues();
+        } else {
+            try {
+                for (String key : parts[2].split(",")) {
+                    cache.deleteValue(Integer.valueOf(key));
+                }
+            } catch (NumberFormatException e) {
+                logger.warning("Received a malformed cache invalidation: " + message);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package de.schwarzes_brett.data_access.cache;
+
+/**
+ * A snapshot of the usage counters of a cache.
+ *
+ * @param hits        Number of lookups that found a valid value.
+ * @param misses      Number of lookups that found no valid value.
+ * @param evictions   Number of entries removed because the cache was full.
+ * @param expirations Number of entries removed because they were outdated.
+ * @param size        Number of entries currently stored, including invalidations.
+ */
+public record CacheStatistics(long hits, long misses, long evictions, long expirations, int size) {
+
+    /**
+     * Computes the share of lookups that found a valid value.
+     *
+     * @return The hit rate between 0 and 1, or 0 if there were no lookups.
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -1,10 +1,24 @@
 package de.schwarzes_brett.data_access.cache;
 
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A cache to reduce loading times. The time a stored value is valid can be set when creating this object. Extending classes should be singleton.
+ * <p>
+ * Values are published per key with version stamps instead of a global lock. Every invalidation stamps its key with a new version of a clock
+ * shared by all caches. A value read by a transaction is only stored if its key was not invalidated after the transaction read
+ * {@link #currentVersion()}, so a transaction that read outdated data can not overwrite the invalidation of a concurrent transaction.
+ * <p>
+ * The number of entries is bounded. Once it is exceeded, entries are evicted with the CLOCK policy, an approximation of LRU that does not
+ * need a lock on reads: every entry has an access mark, and an entry that was accessed since the eviction last passed it gets a second chance.
+ * Whenever a value is written, the clock is advanced by a few entries to remove outdated ones, so no full sweep is needed to keep the cache
+ * small.
  *
  * @param <T> Type of the stored values.
  * @author Daniel Lipp
@@ -15,25 +29,60 @@ public abstract class DAOCache<T> {
      * The default time for which stored values are valid if no other time is specified when specifying a subclass.
      */
     protected static final long DEFAULT_CACHE_TIME = 5 * 60 * 1000;
-    private final HashMap<Integer, CacheDTO<T>> keyValueStore;
+
+    /**
+     * The default maximum number of entries if no other size is specified when specifying a subclass.
+     */
+    protected static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+    private static final int EXPIRY_STEPS = 2;
+    private static final AtomicLong VERSION_CLOCK = new AtomicLong();
+    private final ConcurrentHashMap<Integer, CacheDTO<T>> keyValueStore = new ConcurrentHashMap<>();
+    private final Queue<CacheDTO<T>> clock = new ConcurrentLinkedQueue<>();
     private final long cacheTime;
+    private final int maximumSize;
+    private final AtomicLong clearedVersion = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
 
     /**
-     * Creates a new object with the default cache time.
+     * Creates a new object with the default cache time and size.
      */
     protected DAOCache() {
-        keyValueStore = new HashMap<>();
-        cacheTime = DEFAULT_CACHE_TIME;
+        this(DEFAULT_CACHE_TIME);
     }
 
     /**
-     * Creates a new cache with the given cache storage time.
+     * Creates a new cache with the given cache storage time and the default size.
      *
      * @param cacheTime The time for which an entry is valid in milliseconds.
      */
     protected DAOCache(long cacheTime) {
-        keyValueStore = new HashMap<>();
+        this(cacheTime, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a new cache with the given cache storage time and size.
+     *
+     * @param cacheTime   The time for which an entry is valid in milliseconds.
+     * @param maximumSize The maximum number of entries, including invalidations.
+     */
+    protected DAOCache(long cacheTime, int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("The maximum size of a cache must be positive.");
+        }
         this.cacheTime = cacheTime;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the current version of all caches. Must be read before the values that are to be stored are read from the database.
+     *
+     * @return The current cache version.
+     */
+    public static long currentVersion() {
+        return VERSION_CLOCK.get();
     }
 
     /**
@@ -42,53 +91,145 @@ public abstract class DAOCache<T> {
      * @param id Key to be fetched.
      * @return Value stored for the given key. If no value is stored, then {@code null} is returned.
      */
-    protected synchronized T getValue(Integer id) {
+    protected T getValue(Integer id) {
         if (id == null) {
             throw new IllegalArgumentException("Id can't be null");
         }
         CacheDTO<T> cachedValue = keyValueStore.get(id);
-        if (cachedValue == null || Instant.now().toEpochMilli() - cachedValue.insertionTime() > cacheTime) {
+        if (cachedValue == null || cachedValue.dto() == null || isOutdated(cachedValue)) {
+            misses.increment();
             return null;
         } else {
+            cachedValue.markAccessed();
+            hits.increment();
             return cachedValue.dto();
         }
     }
 
     /**
-     * Stores a value in the cache for the given id.
+     * Stores a value in the cache for the given id, unless the id was invalidated after the value was read.
      *
-     * @param id    Key for which the value is stored.
-     * @param value Value to be stored.
+     * @param id          Key for which the value is stored.
+     * @param value       Value to be stored.
+     * @param readVersion The cache version that was current before the value was read.
+     * @return {@code true} if the value was stored.
      */
-    protected synchronized void setValue(Integer id, T value) {
-        CacheDTO<T> cacheValue = new CacheDTO<>(Instant.now().toEpochMilli(), value);
-        keyValueStore.put(id, cacheValue);
+    protected boolean setValue(Integer id, T value, long readVersion) {
+        AtomicReference<CacheDTO<T>> created = new AtomicReference<>();
+        keyValueStore.compute(id, (key, old) -> {
+            long version = old == null ? clearedVersion.get() : old.version();
+            if (version > readVersion) {
+                return old;
+            }
+            created.set(new CacheDTO<>(key, Instant.now().toEpochMilli(), version, value));
+            return created.get();
+        });
+        if (created.get() == null) {
+            return false;
+        }
+        clock.offer(created.get());
+        afterWrite();
+        return true;
     }
 
     /**
-     * Removes a value from the cache.
+     * Removes a value from the cache. Values read before this invalidation are not stored afterwards.
      *
      * @param id Key of the value to be removed.
      */
-    protected synchronized void deleteValue(Integer id) {
-        keyValueStore.remove(id);
+    protected void deleteValue(Integer id) {
+        CacheDTO<T> invalidation = new CacheDTO<>(id, Instant.now().toEpochMilli(), VERSION_CLOCK.incrementAndGet(), null);
+        keyValueStore.put(id, invalidation);
+        clock.offer(invalidation);
+        afterWrite();
     }
 
     /**
-     * Clears all values that are too old to be fetched.
+     * Removes all values from the cache. Values read before this invalidation are not stored afterwards.
+     */
+    protected void deleteAllValues() {
+        clearedVersion.accumulateAndGet(VERSION_CLOCK.incrementAndGet(), Math::max);
+        keyValueStore.clear();
+    }
+
+    /**
+     * Clears all values and invalidations that are too old to be fetched.
      *
      * @return Amount of unused old values that were removed.
      */
-    public synchronized int clearOldValues() {
+    public int clearOldValues() {
         int deleted = 0;
-        for (Integer key : keyValueStore.keySet()) {
-            T value = getValue(key);
-            if (value == null) {
-                // value is null or too old
-                deleteValue(key);
+        for (CacheDTO<T> cachedValue : keyValueStore.values()) {
+            if (isOutdated(cachedValue) && remove(cachedValue)) {
+                expirations.increment();
                 ++deleted;
             }
         }
         return deleted;
     }
+
+    /**
+     * Returns the usage counters of this cache.
+     *
+     * @return A snapshot of the hits, misses, evictions and the current size of this cache.
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), keyValueStore.size());
+    }
+
+    /**
+     * Advances the clock after a write. While the cache is full, the clock is advanced until an entry was evicted. Otherwise, it is only advanced
+     * by a few entries to remove outdated ones. Entries of the clock that were replaced in the cache are dropped when they are passed, so the
+     * clock does not grow beyond the cache.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private void afterWrite() {
+        boolean full = keyValueStore.size() > maximumSize;
+        int steps = 0;
+        while (full ? keyValueStore.size() > maximumSize : steps < EXPIRY_STEPS) {
+            CacheDTO<T> entry = clock.poll();
+            if (entry == null) {
+                break;
+            }
+            ++steps;
+            if (!isCurrent(entry)) {
+                continue;
+            }
+            if (isOutdated(entry)) {
+                if (remove(entry)) {
+                    expirations.increment();
+                }
+            } else if (!full || entry.clearAccessed()) {
+                clock.offer(entry);
+            } else if (remove(entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Removes the given entry if it is still stored.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private boolean remove(CacheDTO<T> entry) {
+        boolean[] removed = {false};
+        keyValueStore.computeIfPresent(entry.key(), (key, cachedValue) -> {
+            if (cachedValue != entry) {
+                return cachedValue;
+            }
+            // The version of a removed key stays the lower bound for storing it, as it could be newer than running transactions.
+            clearedVersion.accumulateAndGet(cachedValue.version(), Math::max);
+            removed[0] = true;
+            return null;
+        });
+        return removed[0];
+    }
+
+    private boolean isCurrent(CacheDTO<T> entry) {
+        return keyValueStore.get(entry.key()) == entry;
+    }
+
+    private boolean isOutdated(CacheDTO<T> cachedValue) {
+        return Instant.now().toEpochMilli() - cachedValue.insertionTime() > cacheTime;
+    }
 }
@@ -43,12 +43,13 @@ public final class UserDaoCache extends DAOCache<UserDTO> {
     }
 
     /**
-     * Updates the cache with the given user.
+     * Updates the cache with the given user, unless the user was invalidated after it was read.
      *
-     * @param user User to be stored in the cache.
+     * @param user        User to be stored in the cache.
+     * @param readVersion The cache version that was current before the user was read.
      */
-    public void storeUser(UserDTO user) {
-        setValue(user.getId(), user);
+    public void storeUser(UserDTO user, long readVersion) {
+        setValue(user.getId(), user, readVersion);
     }
 
     /**
@@ -89,4 +89,22 @@ public final class Config {
         }
     }
 
+    /**
+     * Returns the value of the optional config parameter corresponding to the given key.
+     *
+     * @param key          The identifying value of certain requested config value.
+     * @param defaultValue The value to be returned if the config parameter is not set.
+     * @return The requested config value, or the default value if it is not set.
+     */
+    public String get(String key, String defaultValue) {
+        if (configProperties == null) {
+            throw new IllegalStateException("The application configuration must be initialized first.");
+        } else if (key == null) {
+            throw new IllegalArgumentException("The key is null.");
+        } else {
+            logger.finest("Accessed optional configuration entry with key " + key + ".");
+            return configProperties.getProperty(key, defaultValue);
+        }
+    }
+
 }
@@ -1,6 +1,7 @@
 package de.schwarzes_brett.data_access.dao;
 
 import de.schwarzes_brett.dto.AdDTO;
+import de.schwarzes_brett.dto.AdSummary;
 import de.schwarzes_brett.dto.ImageDTO;
 import de.schwarzes_brett.dto.PaginationDTO;
 import de.schwarzes_brett.dto.UserDTO;
@@ -10,6 +11,17 @@ import java.util.List;
 /**
  * Controls the database access for an ad. The access happens through prepared statements and filling DTOs which get iterated through
  * the layers.
+ * <p>
+ * The listings select their page by its number, or by the cursor of the pagination if it is set. After a full page the cursor of the
+ * following page is stored in the pagination. The listings also store the last page number in the pagination, which is counted by the
+ * same query as the page, so the separate methods for the last page number are only needed without fetching a page. Counting reads every
+ * ad of the listing, so large listings that are neither searched nor filtered by a category are estimated by the query planner instead.
+ * <p>
+ * The listings return an {@code AdSummary} per ad, which is read from the listing read model {@code ad_listing}. Triggers keep it up to
+ * date with the ads, their images, contact data and categories, and the ratings of their creators.
+ * <p>
+ * The listings can be sorted by title, value, publishing time, relevance or distance. Any other sort column is rejected with an
+ * {@code IllegalArgumentException}.
  */
 public interface AdDAO {
 
@@ -48,43 +60,43 @@ public interface AdDAO {
      *
      * @param user       The user of whom the ads get fetched.
      * @param pagination The {@code PaginationDTO} in which the ads get saved.
-     * @return List of {@code AdDTO} containing fetched ads.
+     * @return List of {@code AdSummary} containing fetched ads.
      */
-    List<AdDTO> fetchAdsFromUser(PaginationDTO pagination, UserDTO user);
+    List<AdSummary> fetchAdsFromUser(PaginationDTO pagination, UserDTO user);
 
     /**
-     * Fetches all ads from the database.
+     * Fetches all ads from the database. If the pagination has a category, only the ads of it and all its subcategories are fetched.
      *
      * @param pagination The {@code PaginationDTO} in which the ads get saved.
-     * @return List of {@code AdDTO} containing fetched ads.
+     * @return List of {@code AdSummary} containing fetched ads.
      */
-    List<AdDTO> fetchAds(PaginationDTO pagination);
+    List<AdSummary> fetchAds(PaginationDTO pagination);
 
     /**
-     * Fetches all ads from the database.
+     * Fetches all ads from the database. If the pagination has a category, only the ads of it and all its subcategories are fetched.
      *
      * @param pagination The {@code PaginationDTO} in which the ads get saved.
-     * @return List of {@code AdDTO} containing fetched ads.
+     * @return List of {@code AdSummary} containing fetched ads.
      */
-    List<AdDTO> fetchAdsWithUnreleased(PaginationDTO pagination);
+    List<AdSummary> fetchAdsWithUnreleased(PaginationDTO pagination);
 
     /**
      * Fetches ads that are followed for the given user.
      *
      * @param pagination The {@code PaginationDTO} in which the information of the pagination is saved.
      * @param user       The user for which the ads are fetched.
-     * @return List of {@code AdDTO} containing fetched ads.
+     * @return List of {@code AdSummary} containing fetched ads.
      */
-    List<AdDTO> fetchFollowedAds(PaginationDTO pagination, UserDTO user);
+    List<AdSummary> fetchFollowedAds(PaginationDTO pagination, UserDTO user);
 
     /**
      * Fetches ads that were commented by the given user.
      *
      * @param pagination The {@code PaginationDTO} in which the information of the pagination is saved.
      * @param user       The user for which the ads are fetched.
-     * @return List of {@code AdDTO} containing fetched ads.
+     * @return List of {@code AdSummary} containing fetched ads.
      */
-    List<AdDTO> fetchCommentedAds(PaginationDTO pagination, UserDTO user);
+    List<AdSummary> fetchCommentedAds(PaginationDTO pagination, UserDTO user);
 
     /**
      * Checks in the database if ad has a valid id.
@@ -119,7 +131,8 @@ public interface AdDAO {
     void updateThumbnail(AdDTO ad, int index);
 
     /**
-     * Fetches the number of pages for a given {@code PaginationDTO}.
+     * Fetches the number of pages for a given {@code PaginationDTO}. If the listing is neither searched nor filtered and has more items
+     * than can be counted quickly, the number is estimated, capped and marked as estimated in the pagination.
      *
      * @param pagination The {@code PaginationDTO} in which the information of the pagination is saved.
      * @return The number of pages.
@@ -127,7 +140,8 @@ public interface AdDAO {
     int fetchLastPageNumber(PaginationDTO pagination);
 
     /**
-     * Fetches the number of pages for a given {@code PaginationDTO}.
+     * Fetches the number of pages for a given {@code PaginationDTO}. If the listing is neither searched nor filtered and has more items
+     * than can be counted quickly, the number is estimated, capped and marked as estimated in the pagination.
      *
      * @param pagination The {@code PaginationDTO} in which the information of the pagination is saved.
      * @return The number of pages.
@@ -4,17 +4,19 @@ import de.schwarzes_brett.data_access.exception.AdDoesNotExistException;
 import de.schwarzes_brett.data_access.exception.DataStorageAccessException;
 import de.schwarzes_brett.data_access.transaction.TransactionPsql;
 import de.schwarzes_brett.dto.AdDTO;
+import de.schwarzes_brett.dto.AdSummary;
 import de.schwarzes_brett.dto.CategoryDTO;
 import de.schwarzes_brett.dto.CredentialsDTO;
 import de.schwarzes_brett.dto.Currency;
 import de.schwarzes_brett.dto.ImageDTO;
 import de.schwarzes_brett.dto.MessageDTO;
+import de.schwarzes_brett.dto.PageCursor;
 import de.schwarzes_brett.dto.PaginationDTO;
 import de.schwarzes_brett.dto.PriceDTO;
+import de.schwarzes_brett.dto.SearchDTO;
 import de.schwarzes_brett.dto.UserDTO;
 import de.schwarzes_brett.logging.LoggerProducer;
 
-import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -29,8 +31,13 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntSupplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 /**
  * Controls the PostgreSql database access for an ad.
@@ -39,6 +46,66 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final Pattern POSTCODE = Pattern.compile("\\d+");
+    private static final String TOTAL_COUNT = "total_count";
+    private static final String DISTANCE = "schwarzes_brett.distance_km(origin.latitude, origin.longitude, c.latitude, c.longitude)";
+    private static final String AD_INFORMATION_QUERY = "SELECT a.title as title, "
+                                                       + " a.description as description, "
+                                                       + " a.publishing_time as release, "
+                                                       + " a.termination_time as \"end\", "
+                                                       + " a.value as price, "
+                                                       + " a.currency as currency, "
+                                                       + " a.is_basis_of_negotiation as is_vb, "
+                                                       + " a.has_price as has_price, "
+                                                       + " a.category as category_id, "
+                                                       + " c.name as category_name, "
+                                                       + " cd.first_name as pd_firstname, "
+                                                       + " cd.last_name as pd_lastname, "
+                                                       + " cd.country as location_country, "
+                                                       + " cd.postcode as location_postcode, "
+                                                       + " cd.city as location_city, "
+                                                       + " cd.street as location_street, "
+                                                       + " cd.house_number as location_street_number, "
+                                                       + " cd.address_suffix as location_address_addition, "
+                                                       + " cd.phone_number as location_phone, "
+                                                       + " cd.e_mail as location_email, "
+                                                       + " u.avatar_image_oid as creator_avatar, "
+                                                       + " u.id as creator_id, "
+                                                       + " u.nickname as creator_username, "
+                                                       + " a.contact as contact_id, "
+                                                       + " cd_u.first_name as creator_firstname, "
+                                                       + " cd_u.last_name as creator_lastname, "
+                                                       + " cd_u.address_suffix as creator_address_addition, "
+                                                       + " cd_u.street as creator_street, "
+                                                       + " cd_u.house_number as creator_street_number, "
+                                                       + " cd_u.postcode as creator_postcode, "
+                                                       + " cd_u.city as creator_city, "
+                                                       + " cd_u.country as creator_country, "
+                                                       + " cd_u.e_mail as creator_email,"
+                                                       + " cd_u.phone_number as creator_phone, "
+                                                       + " (SELECT avg(valuation) FROM schwarzes_brett.rating"
+                                                       + "    WHERE rated_user = a.creator) as creator_rating, "
+                                                       + " (SELECT count(*) FROM ("
+                                                       + "    SELECT following_user as \"user\" FROM schwarzes_brett.follow"
+                                                       + "    WHERE followed_user = a.creator"
+                                                       + "    UNION"
+                                                       + "    SELECT \"user\" FROM schwarzes_brett.abonnement"
+                                                       + "    WHERE \"user\" = a.creator) sub) as follower"
+                                                       + "  FROM schwarzes_brett.ad a "
+                                                       + "  LEFT JOIN schwarzes_brett.user u on u.id = a.creator "
+                                                       + "  LEFT JOIN schwarzes_brett.contact_data cd on cd.id = a.contact "
+                                                       + "  LEFT JOIN schwarzes_brett.category c on c.id = a.category "
+                                                       + "  LEFT JOIN schwarzes_brett.contact_data cd_u on cd_u.id = u.contact_data"
+                                                       + "  WHERE a.id=?;";
+    private static final String INSERT_IMAGE_QUERY = "INSERT INTO schwarzes_brett.image (image_oid, ad_id, is_thumbnail) VALUES (?, ?, FALSE);";
+    private static final String AD_IMAGES_QUERY = "SELECT ad_id, image_oid, is_thumbnail FROM schwarzes_brett.image WHERE ad_id=?;";
+    private static final Set<String> SORT_COLUMNS = Set.of("title", "value", "publishing_time", PaginationDTO.SORT_BY_RELEVANCE,
+                                                             PaginationDTO.SORT_BY_DISTANCE);
+    private static final QueryTemplates<ListingVariant> LISTINGS = new QueryTemplates<>();
+    private static final String LISTING_JOIN = "JOIN schwarzes_brett.ad_listing l ON l.ad_id = ad.id ";
+    // The followed ads of a user are read from the feed, which is written when ads, follows and abonnements change.
+    private static final String FOLLOW_FEED_SOURCE = "(SELECT ad FROM schwarzes_brett.follow_feed WHERE \"user\" = ?) feed "
+                                                     + "JOIN schwarzes_brett.ad ad ON ad.id = feed.ad ";
     private final Logger logger = LoggerProducer.get(AdDAOPsql.class);
 
     /**
@@ -92,13 +159,28 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     }
 
     /**
+     * Inserts all images of an ad as one batch, which the driver rewrites into a single multi-row insert.
+     *
      * @param connection Connection on which the update is executed.
-     * @param ad         Ad to receive an image.
-     * @param index      Index of the image.
-     * @author Daniel Lipp
+     * @param ad         Ad to receive its images.
      */
-    private void insertImage(Connection connection, AdDTO ad, int index) {
-        manageImages(connection, ad, ad.getImages().get(index).getId(), true);
+    private void insertImages(Connection connection, AdDTO ad) {
+        if (ad.getImages().isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_IMAGE_QUERY)) {
+            for (ImageDTO image : ad.getImages()) {
+                statement.setLong(1, image.getId());
+                statement.setInt(2, ad.getId());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            String message = "Failed to insert images of the ad.";
+            logger.severe(message);
+            logger.log(Level.SEVERE, e.getMessage(), e);
+            throw new DataStorageAccessException(message, e);
+        }
     }
 
     /**
@@ -121,7 +203,7 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     private void manageImages(Connection connection, AdDTO ad, Long imageId, boolean insert) {
         String query;
         if (insert) {
-            query = "INSERT INTO schwarzes_brett.image (image_oid, ad_id, is_thumbnail) VALUES (?, ?, FALSE);";
+            query = INSERT_IMAGE_QUERY;
         } else {
             query = "DELETE FROM schwarzes_brett.image WHERE image_oid = ? AND ad_id = ?;";
         }
@@ -172,10 +254,7 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
             throw new DataStorageAccessException(message, e);
         }
 
-        for (int i = 0; i < ad.getImages().size(); ++i) {
-            insertImage(connection, ad, i);
-        }
-
+        insertImages(connection, ad);
     }
 
     /**
@@ -249,29 +328,48 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The information of the ad, its images and its messages are fetched with one statement that returns a result set for each of them, so
+     * the ad page only costs a single round trip to the database. The ad exists if the first result set contains its row.
      *
      * @author Jonas Elsper
      */
     @Override
+    @SuppressWarnings("checkstyle:MagicNumber")
     public void fetchAd(AdDTO ad, Integer userId, boolean isAdminOrCreator) {
-        try {
-            if (doesAdExist(ad.getId())) {
-                logger.finest("Fetching ad info...");
-                fetchAdInformation(ad);
-                logger.finest("Fetching ad images...");
-                fetchAdImages(ad);
-                logger.finest("Fetching ad rating...");
-                fetchRating(ad);
-                logger.finest("Fetching ad follower...");
-                fetchFollower(ad);
-                if (userId != null) {
-                    logger.finest("Fetching ad messages...");
-                    fetchMessages(ad, userId, isAdminOrCreator);
+        try (PreparedStatement ps = getTransaction().getConnection().prepareStatement(adPageQuery(userId != null, isAdminOrCreator))) {
+            ps.setInt(1, ad.getId());
+            ps.setInt(2, ad.getId());
+            if (userId != null) {
+                ps.setInt(3, ad.getId());
+                if (!isAdminOrCreator) {
+                    ps.setInt(4, userId);
+                    ps.setInt(5, userId);
+                    ps.setInt(6, userId);
                 }
-                logger.finest("Fetching was successful.");
-            } else {
-                throw new AdDoesNotExistException("Ad with id " + ad.getId() + " cannot be found.");
             }
+            ps.execute();
+            try (ResultSet rs = ps.getResultSet()) {
+                if (!rs.next()) {
+                    throw new AdDoesNotExistException("Ad with id " + ad.getId() + " cannot be found.");
+                }
+                logger.finest("Reading ad info...");
+                readAdInformation(ad, rs);
+            }
+            ps.getMoreResults();
+            try (ResultSet rs = ps.getResultSet()) {
+                logger.finest("Reading ad images...");
+                initImages(ad);
+                readAdImages(Map.of(ad.getId(), ad), rs);
+            }
+            if (userId != null) {
+                ps.getMoreResults();
+                try (ResultSet rs = ps.getResultSet()) {
+                    logger.finest("Reading ad messages...");
+                    readMessages(ad, rs);
+                }
+            }
+            logger.finest("Fetching was successful.");
         } catch (SQLException e) {
             logger.log(Level.WARNING, "Error occurred while fetching information for the ad with id=" + ad.getId() + ".", e);
             throw new DataStorageAccessException("Error occurred while fetching ad information.", e);
@@ -286,7 +384,7 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     @SuppressWarnings({"checkstyle:JavadocMethod"})
     private boolean doesAdExist(Integer id) throws SQLException {
         Connection conn = getTransaction().getConnection();
-        try (PreparedStatement ps = conn.prepareStatement("SELECT * FROM schwarzes_brett.ad a WHERE a.id=?;")) {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM schwarzes_brett.ad a WHERE a.id=?;")) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 return rs.next();
@@ -295,130 +393,84 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     }
 
     /**
-     * @author Jonas Elsper
+     * Builds the statement that fetches the information, images and optionally the messages of an ad. The id of the ad is its first and
+     * second parameter, followed by the parameters of the messages query.
      */
-    @SuppressWarnings({"checkstyle:JavadocMethod", "checkstyle:MagicNumber"})
-    private void fetchMessages(AdDTO ad, int userId, boolean isAdminOrCreator) throws SQLException {
-        Connection conn = getTransaction().getConnection();
-        List<MessageDTO> messages = new ArrayList<>();
-        String sqlQuery;
-        if (isAdminOrCreator) {
-            sqlQuery = "SELECT m.*, u.nickname as nickname, u_r.nickname as r_nickname "
-                       + "FROM schwarzes_brett.message m "
-                       + "LEFT JOIN schwarzes_brett.\"user\" u on u.id = m.author "
-                       + "LEFT JOIN schwarzes_brett.contact_data cd on cd.id = u.contact_data "
-                       + "LEFT JOIN schwarzes_brett.ad a on a.id = m.ad_id "
-                       + "LEFT JOIN schwarzes_brett.user u_r ON m.addressee = u_r.id "
-                       + "WHERE m.ad_id=? ";
-        } else {
-            sqlQuery = "SELECT m.*, u.nickname as nickname, u_r.nickname as r_nickname "
-                       + "FROM schwarzes_brett.message m "
-                       + "LEFT JOIN schwarzes_brett.\"user\" u on u.id = m.author "
-                       + "LEFT JOIN schwarzes_brett.contact_data cd on cd.id = u.contact_data "
-                       + "LEFT JOIN schwarzes_brett.ad a on a.id = m.ad_id "
-                       + "LEFT JOIN schwarzes_brett.user u_r ON m.addressee = u_r.id "
-                       + "WHERE m.ad_id=? "
-                       + "AND ((m.author=? OR m.addressee=?) "
-                       + "OR (m.is_public=TRUE)"
-                       + "OR (a.creator=?));";
-        }
-        try (PreparedStatement ps = conn.prepareStatement(sqlQuery)) {
-            ps.setInt(1, ad.getId());
-            if (!isAdminOrCreator) {
-                ps.setInt(2, userId);
-                ps.setInt(3, userId);
-                ps.setInt(4, userId);
-            }
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    MessageDTO message = new MessageDTO();
-                    message.setMessageId(rs.getInt("id"));
-                    message.setAd(ad);
-                    message.setContent(rs.getString("content"));
-                    UserDTO sender = new UserDTO();
-                    CredentialsDTO credentials = new CredentialsDTO();
-                    credentials.setUsername(rs.getString("nickname"));
-                    sender.setCredentials(credentials);
-                    sender.setId(rs.getInt("author"));
-                    message.setSender(sender);
-                    UserDTO receiver = new UserDTO();
-                    receiver.setId(rs.getInt("addressee"));
-                    CredentialsDTO credentialsReceiver = new CredentialsDTO();
-                    credentialsReceiver.setUsername(rs.getString("r_nickname"));
-                    receiver.setCredentials(credentialsReceiver);
-                    message.setReceiver(receiver);
-                    message.setSharedPublic(rs.getBoolean("is_public"));
-                    message.setAnonymous(rs.getBoolean("is_anonymous"));
-                    messages.add(message);
-                }
-            }
-        }
-        ad.setMessages(messages);
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String adPageQuery(boolean withMessages, boolean isAdminOrCreator) {
+        return AD_INFORMATION_QUERY + AD_IMAGES_QUERY + (withMessages ? messagesQuery(isAdminOrCreator) : "");
     }
 
     /**
      * @author Jonas Elsper
      */
     @SuppressWarnings({"checkstyle:JavadocMethod"})
-    private void fetchRating(AdDTO ad) throws SQLException {
-        try (PreparedStatement ps = getTransaction().getConnection().prepareStatement("SELECT avg(valuation) "
-                                                                                      + "FROM schwarzes_brett.rating "
-                                                                                      + "Where rated_user=?;")) {
-            ps.setInt(1, ad.getCreator().getId());
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    ad.getCreator().setRating(rs.getBigDecimal("avg"));
-                }
-            }
+    private static String messagesQuery(boolean isAdminOrCreator) {
+        String sqlQuery = "SELECT m.*, u.nickname as nickname, u_r.nickname as r_nickname "
+                          + "FROM schwarzes_brett.message m "
+                          + "LEFT JOIN schwarzes_brett.\"user\" u on u.id = m.author "
+                          + "LEFT JOIN schwarzes_brett.contact_data cd on cd.id = u.contact_data "
+                          + "LEFT JOIN schwarzes_brett.ad a on a.id = m.ad_id "
+                          + "LEFT JOIN schwarzes_brett.user u_r ON m.addressee = u_r.id "
+                          + "WHERE m.ad_id=? ";
+        if (isAdminOrCreator) {
+            return sqlQuery + ";";
         }
+        return sqlQuery
+               + "AND ((m.author=? OR m.addressee=?) "
+               + "OR (m.is_public=TRUE)"
+               + "OR (a.creator=?));";
     }
 
     /**
      * @author Jonas Elsper
      */
     @SuppressWarnings({"checkstyle:JavadocMethod"})
-    private void fetchFollower(AdDTO ad) throws SQLException {
-        try (PreparedStatement ps = getTransaction().getConnection().prepareStatement("SELECT count(*) as follower "
-                                                                                      + "FROM ("
-                                                                                      + "  SELECT following_user as \"user\""
-                                                                                      + "  FROM schwarzes_brett.follow"
-                                                                                      + "  WHERE followed_user=?"
-                                                                                      + "  UNION"
-                                                                                      + "  SELECT \"user\""
-                                                                                      + "  FROM schwarzes_brett.abonnement"
-                                                                                      + "  WHERE \"user\"=?) sub;")) {
-            ps.setInt(1, ad.getCreator().getId());
-            ps.setInt(2, ad.getCreator().getId());
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    ad.setFollower(rs.getInt("follower"));
-                }
-            }
+    private void readMessages(AdDTO ad, ResultSet rs) throws SQLException {
+        List<MessageDTO> messages = new ArrayList<>();
+        while (rs.next()) {
+            MessageDTO message = new MessageDTO();
+            message.setMessageId(rs.getInt("id"));
+            message.setAd(ad);
+            message.setContent(rs.getString("content"));
+            UserDTO sender = new UserDTO();
+            CredentialsDTO credentials = new CredentialsDTO();
+            credentials.setUsername(rs.getString("nickname"));
+            sender.setCredentials(credentials);
+            sender.setId(rs.getInt("author"));
+            message.setSender(sender);
+            UserDTO receiver = new UserDTO();
+            receiver.setId(rs.getInt("addressee"));
+            CredentialsDTO credentialsReceiver = new CredentialsDTO();
+            credentialsReceiver.setUsername(rs.getString("r_nickname"));
+            receiver.setCredentials(credentialsReceiver);
+            message.setReceiver(receiver);
+            message.setSharedPublic(rs.getBoolean("is_public"));
+            message.setAnonymous(rs.getBoolean("is_anonymous"));
+            messages.add(message);
         }
+        ad.setMessages(messages);
+    }
+
+    private static void initImages(AdDTO ad) {
+        ad.setThumbnail(new ImageDTO());
+        ad.setImages(new LinkedList<>());
     }
 
     /**
      * @author Jonas Elsper
      */
     @SuppressWarnings({"checkstyle:JavadocMethod"})
-    private void fetchAdImages(AdDTO ad) throws SQLException {
-        List<ImageDTO> images = new LinkedList<>();
-        ImageDTO thumbnail = new ImageDTO();
-        try (PreparedStatement ps = getTransaction().getConnection().prepareStatement("SELECT * FROM schwarzes_brett.image WHERE ad_id=?;")) {
-            ps.setInt(1, ad.getId());
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    ImageDTO image = new ImageDTO();
-                    if (rs.getBoolean("is_thumbnail")) {
-                        thumbnail = image;
-                    }
-                    image.setId(rs.getLong("image_oid"));
-                    images.add(image);
-                }
+    private static void readAdImages(Map<Integer, AdDTO> adsById, ResultSet rs) throws SQLException {
+        while (rs.next()) {
+            AdDTO ad = adsById.get(rs.getInt("ad_id"));
+            ImageDTO image = new ImageDTO();
+            if (rs.getBoolean("is_thumbnail")) {
+                ad.setThumbnail(image);
             }
+            image.setId(rs.getLong("image_oid"));
+            ad.getImages().add(image);
         }
-        ad.setThumbnail(thumbnail);
-        ad.setImages(images);
     }
 
     /**
@@ -436,116 +488,72 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
      * @author Jonas Elsper
      */
     @SuppressWarnings({"checkstyle:JavadocMethod"})
-    private void fetchAdInformation(AdDTO ad) throws SQLException {
-        Connection conn = getTransaction().getConnection();
-        try (PreparedStatement ps = conn.prepareStatement("SELECT a.title as title, "
-                                                          + " a.description as description, "
-                                                          + " a.publishing_time as release, "
-                                                          + " a.termination_time as \"end\", "
-                                                          + " a.value as price, "
-                                                          + " a.currency as currency, "
-                                                          + " a.is_basis_of_negotiation as is_vb, "
-                                                          + " a.has_price as has_price, "
-                                                          + " a.category as category_id, "
-                                                          + " c.name as category_name, "
-                                                          + " cd.first_name as pd_firstname, "
-                                                          + " cd.last_name as pd_lastname, "
-                                                          + " cd.country as location_country, "
-                                                          + " cd.postcode as location_postcode, "
-                                                          + " cd.city as location_city, "
-                                                          + " cd.street as location_street, "
-                                                          + " cd.house_number as location_street_number, "
-                                                          + " cd.address_suffix as location_address_addition, "
-                                                          + " cd.phone_number as location_phone, "
-                                                          + " cd.e_mail as location_email, "
-                                                          + " u.avatar_image_oid as creator_avatar, "
-                                                          + " u.id as creator_id, "
-                                                          + " u.nickname as creator_username, "
-                                                          + " a.contact as contact_id, "
-                                                          + " cd_u.first_name as creator_firstname, "
-                                                          + " cd_u.last_name as creator_lastname, "
-                                                          + " cd_u.address_suffix as creator_address_addition, "
-                                                          + " cd_u.street as creator_street, "
-                                                          + " cd_u.house_number as creator_street_number, "
-                                                          + " cd_u.postcode as creator_postcode, "
-                                                          + " cd_u.city as creator_city, "
-                                                          + " cd_u.country as creator_country, "
-                                                          + " cd_u.e_mail as creator_email,"
-                                                          + " cd_u.phone_number as creator_phone"
-                                                          + "  FROM schwarzes_brett.ad a "
-                                                          + "  LEFT JOIN schwarzes_brett.user u on u.id = a.creator "
-                                                          + "  LEFT JOIN schwarzes_brett.contact_data cd on cd.id = a.contact "
-                                                          + "  LEFT JOIN schwarzes_brett.category c on c.id = a.category "
-                                                          + "  LEFT JOIN schwarzes_brett.contact_data cd_u on cd_u.id = u.contact_data"
-                                                          + "  WHERE a.id=?;")) {
-            ps.setInt(1, ad.getId());
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-            ad.setTitle(rs.getString("title"));
-            ad.setDescription(DAOPsqlUtil.extractNullableString("description", rs));
-            ad.setRelease(parseDateTime(rs.getString("release")));
-            String end = rs.getString("end");
-            if (end != null) {
-                ad.setEnd(parseDateTime(end));
-            }
-            ad.setBasisOfNegotiation(Boolean.parseBoolean(rs.getString("is_vb")));
-            // set price
-            PriceDTO price = new PriceDTO();
-            price.setCurrency(Currency.valueOf(rs.getString("currency")));
-            price.setHasPrice(rs.getBoolean("has_price"));
-            price.setValue(rs.getBigDecimal("price"));
-            price.setBasisOfNegotiation(rs.getBoolean("is_vb"));
-            ad.setPrice(price);
-            // set location
-            String location = DAOPsqlUtil.extractNullableString("location_country", rs) + ", "
-                              + DAOPsqlUtil.extractNullableString("location_postcode", rs) + ", "
-                              + DAOPsqlUtil.extractNullableString("location_city", rs);
-            ad.setLocation(location);
-            // set creator
-            UserDTO creator = new UserDTO();
-            ImageDTO avatar = new ImageDTO();
-            avatar.setId(DAOPsqlUtil.extractNullableLong("creator_avatar", rs));
-            creator.setAvatar(avatar);
-            creator.setId(rs.getInt("creator_id"));
-            CredentialsDTO creatorCredentials = new CredentialsDTO();
-            creatorCredentials.setUsername(rs.getString("creator_username"));
-            creator.setCredentials(creatorCredentials);
-            creator.setFirstName(rs.getString("creator_firstname"));
-            creator.setLastName(rs.getString("creator_lastname"));
-            creator.setAddressAddition(DAOPsqlUtil.extractNullableString("creator_address_addition", rs));
-            creator.setStreet(DAOPsqlUtil.extractNullableString("creator_street", rs));
-            creator.setStreetNumber(DAOPsqlUtil.extractNullableString("creator_street_number", rs));
-            creator.setPostalCode(rs.getString("creator_postcode"));
-            creator.setCity(rs.getString("creator_city"));
-            creator.setCountry(rs.getString("creator_country"));
-            creator.setEmail(rs.getString("creator_email"));
-            creator.setPhone(DAOPsqlUtil.extractNullableString("creator_phone", rs));
-            ad.setCreator(creator);
-            // set publicData
-            UserDTO publicData = new UserDTO();
-            publicData.setContactInfoId(rs.getLong("contact_id"));
-            publicData.setFirstName(DAOPsqlUtil.extractNullableString("pd_firstname", rs));
-            publicData.setLastName(DAOPsqlUtil.extractNullableString("pd_lastname", rs));
-            publicData.setPhone(DAOPsqlUtil.extractNullableString("location_phone", rs));
-            publicData.setEmail(DAOPsqlUtil.extractNullableString("location_email", rs));
-            publicData.setAddressAddition(DAOPsqlUtil.extractNullableString("location_address_addition", rs));
-            publicData.setStreet(DAOPsqlUtil.extractNullableString("location_street", rs));
-            publicData.setStreetNumber(DAOPsqlUtil.extractNullableString("location_street_number", rs));
-            publicData.setPostalCode(rs.getString("location_postcode"));
-            if (rs.wasNull()) {
-                publicData.setPostalCode(null);
-            }
-            publicData.setCity(DAOPsqlUtil.extractNullableString("location_city", rs));
-            publicData.setCountry(DAOPsqlUtil.extractNullableString("location_country", rs));
-            ad.setPublicData(publicData);
-
-            // category
-            CategoryDTO category = new CategoryDTO();
-            category.setId(rs.getInt("category_id"));
-            category.setName(rs.getString("category_name"));
-            ad.setCategory(category);
-            rs.close();
+    private void readAdInformation(AdDTO ad, ResultSet rs) throws SQLException {
+        ad.setTitle(rs.getString("title"));
+        ad.setDescription(DAOPsqlUtil.extractNullableString("description", rs));
+        ad.setRelease(parseDateTime(rs.getString("release")));
+        String end = rs.getString("end");
+        if (end != null) {
+            ad.setEnd(parseDateTime(end));
+        }
+        ad.setBasisOfNegotiation(Boolean.parseBoolean(rs.getString("is_vb")));
+        // set price
+        PriceDTO price = new PriceDTO();
+        price.setCurrency(Currency.valueOf(rs.getString("currency")));
+        price.setHasPrice(rs.getBoolean("has_price"));
+        price.setValue(rs.getBigDecimal("price"));
+        price.setBasisOfNegotiation(rs.getBoolean("is_vb"));
+        ad.setPrice(price);
+        // set location
+        String location = DAOPsqlUtil.extractNullableString("location_country", rs) + ", "
+                          + DAOPsqlUtil.extractNullableString("location_postcode", rs) + ", "
+                          + DAOPsqlUtil.extractNullableString("location_city", rs);
+        ad.setLocation(location);
+        // set creator
+        UserDTO creator = new UserDTO();
+        ImageDTO avatar = new ImageDTO();
+        avatar.setId(DAOPsqlUtil.extractNullableLong("creator_avatar", rs));
+        creator.setAvatar(avatar);
+        creator.setId(rs.getInt("creator_id"));
+        CredentialsDTO creatorCredentials = new CredentialsDTO();
+        creatorCredentials.setUsername(rs.getString("creator_username"));
+        creator.setCredentials(creatorCredentials);
+        creator.setFirstName(rs.getString("creator_firstname"));
+        creator.setLastName(rs.getString("creator_lastname"));
+        creator.setAddressAddition(DAOPsqlUtil.extractNullableString("creator_address_addition", rs));
+        creator.setStreet(DAOPsqlUtil.extractNullableString("creator_street", rs));
+        creator.setStreetNumber(DAOPsqlUtil.extractNullableString("creator_street_number", rs));
+        creator.setPostalCode(rs.getString("creator_postcode"));
+        creator.setCity(rs.getString("creator_city"));
+        creator.setCountry(rs.getString("creator_country"));
+        creator.setEmail(rs.getString("creator_email"));
+        creator.setPhone(DAOPsqlUtil.extractNullableString("creator_phone", rs));
+        creator.setRating(rs.getBigDecimal("creator_rating"));
+        ad.setCreator(creator);
+        ad.setFollower(rs.getInt("follower"));
+        // set publicData
+        UserDTO publicData = new UserDTO();
+        publicData.setContactInfoId(rs.getLong("contact_id"));
+        publicData.setFirstName(DAOPsqlUtil.extractNullableString("pd_firstname", rs));
+        publicData.setLastName(DAOPsqlUtil.extractNullableString("pd_lastname", rs));
+        publicData.setPhone(DAOPsqlUtil.extractNullableString("location_phone", rs));
+        publicData.setEmail(DAOPsqlUtil.extractNullableString("location_email", rs));
+        publicData.setAddressAddition(DAOPsqlUtil.extractNullableString("location_address_addition", rs));
+        publicData.setStreet(DAOPsqlUtil.extractNullableString("location_street", rs));
+        publicData.setStreetNumber(DAOPsqlUtil.extractNullableString("location_street_number", rs));
+        publicData.setPostalCode(rs.getString("location_postcode"));
+        if (rs.wasNull()) {
+            publicData.setPostalCode(null);
         }
+        publicData.setCity(DAOPsqlUtil.extractNullableString("location_city", rs));
+        publicData.setCountry(DAOPsqlUtil.extractNullableString("location_country", rs));
+        ad.setPublicData(publicData);
+
+        // category
+        CategoryDTO category = new CategoryDTO();
+        category.setId(rs.getInt("category_id"));
+        category.setName(rs.getString("category_name"));
+        ad.setCategory(category);
     }
 
     /**
@@ -554,24 +562,25 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
      * @author Jonas Elsper
      */
     @Override
-    public List<AdDTO> fetchAdsFromUser(PaginationDTO pagination, UserDTO user) {
-        List<AdDTO> ads = new ArrayList<>();
+    public List<AdSummary> fetchAdsFromUser(PaginationDTO pagination, UserDTO user) {
+        List<AdSummary> ads = new ArrayList<>();
         try {
             logger.finest("Started preparing statement");
-            try (PreparedStatement statement = getTransaction().getConnection().prepareStatement(
-                    "SELECT * FROM schwarzes_brett.ad ad "
-                    + "LEFT JOIN schwarzes_brett.contact_data c ON ad.contact = c.id "
-                    + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL))"
-                    + "AND ad.creator = ?"
-                    + "AND ((LOWER(c.city) LIKE ('%' || ? || '%') OR ? IS NULL) "
-                    + "OR (c.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
-                    + "ORDER BY " + pagination.getSortBy() + (pagination.isSortAscending() ? " ASC " : " DESC ")
-                    + "LIMIT " + pagination.getItemsPerPage()
-                    + " OFFSET " + (pagination.getItemsPerPage() * (pagination.getPageNumber() - 1)) + ";")) {
-                setFetchOwnAdsQueryParams(pagination, user, statement);
-
-                fetchAdsFromResultSet(ads, statement);
+            boolean withCount = pagination.getCursor() == null;
+            String query = LISTINGS.get(ListingVariant.of(Listing.OWN, pagination, withCount), () ->
+                    listingSelect(pagination, withCount) + " FROM schwarzes_brett.ad ad " + LISTING_JOIN
+                    + locationJoin(pagination)
+                    + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                    + "AND ad.creator = ? "
+                    + locationCondition(pagination.getSearch())
+                    + "AND " + expiryCondition(pagination)
+                    + seekCondition(pagination)
+                    + pageClause(pagination, withCount));
+            try (PreparedStatement statement = getTransaction().getConnection().prepareStatement(query)) {
+                int index = setFetchOwnAdsQueryParams(pagination, user, statement);
+                setPageParameters(pagination, statement, setSeekParameters(pagination, statement, index), withCount);
+
+                fetchAdsFromResultSet(ads, pagination, statement, withCount, () -> fetchOwnAdsLastPageNumber(pagination, user));
             }
 
         } catch (SQLException e) {
@@ -582,31 +591,195 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     }
 
     /**
+     * Reads the ads of a listing page and stores the last page number in the pagination. A counted listing takes it from the number of ads
+     * counted by the same query. A page that is not counted and not full is the last one. A full page after a cursor keeps the last page
+     * number of the page before it, which may be exceeded by it. If the page is empty or the listing is neither counted nor continued after
+     * a cursor, the last page number is taken from the given query instead.
+     *
      * @author Jonas Elsper
      */
     @SuppressWarnings({"checkstyle:JavadocMethod"})
-    private void fetchAdsFromResultSet(List<AdDTO> ads, PreparedStatement statement) throws SQLException {
+    private void fetchAdsFromResultSet(List<AdSummary> ads, PaginationDTO pagination, PreparedStatement statement, boolean withCount,
+                                       IntSupplier lastPageQuery) throws SQLException {
+        String lastSortKey = null;
+        long counted = 0;
         try (ResultSet rs = statement.executeQuery()) {
-            AdDTO ad;
-            PriceDTO price;
             while (rs.next()) {
-                ad = new AdDTO();
-                price = new PriceDTO();
-                ad.setId(rs.getInt("id"));
-                ad.setTitle(rs.getString("title"));
-                ad.setDescription(rs.getString("description"));
-                price.setHasPrice(rs.getBoolean("has_price"));
-                if (price.isHasPrice()) {
-                    price.setValue(BigDecimal.valueOf(rs.getInt("value")));
-                    price.setCurrency(Currency.valueOf(rs.getString("currency")));
-                }
-                price.setBasisOfNegotiation(rs.getBoolean("is_basis_of_negotiation"));
-                ad.setPrice(price);
-                fetchAdImages(ad);
-                ads.add(ad);
+                counted = withCount ? rs.getLong(TOTAL_COUNT) : 0;
+                lastSortKey = rs.getString(pagination.getSortBy());
+                ads.add(readAdSummary(rs));
             }
             logger.finest("Finished creating List for fetchAds");
         }
+        boolean fullPage = !ads.isEmpty() && ads.size() == pagination.getItemsPerPage();
+        pagination.setNextCursor(fullPage ? new PageCursor(lastSortKey, ads.get(ads.size() - 1).getId()) : null);
+        if (ads.isEmpty() && pagination.getCursor() == null && pagination.getPageNumber() <= 1) {
+            pagination.setLastPageNumberEstimated(false);
+            pagination.setLastPageNumber(1);
+        } else if (withCount && !ads.isEmpty()) {
+            pagination.setLastPageNumber(lastPageNumber(pagination, counted));
+        } else if (!ads.isEmpty() && !fullPage) {
+            pagination.setLastPageNumberEstimated(false);
+            pagination.setLastPageNumber(pagination.getPageNumber());
+        } else if (pagination.getCursor() != null && fullPage) {
+            pagination.setLastPageNumber(Math.max(pagination.getLastPageNumber(), pagination.getPageNumber()));
+        } else {
+            // A page behind the last one does not tell how many ads there are.
+            pagination.setLastPageNumberEstimated(false);
+            pagination.setLastPageNumber(lastPageQuery.getAsInt());
+        }
+    }
+
+    /**
+     * Reads an ad of a listing from its row of the listing read model.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static AdSummary readAdSummary(ResultSet rs) throws SQLException {
+        AdSummary ad = new AdSummary();
+        ad.setId(rs.getInt("ad_id"));
+        ad.setTitle(rs.getString("title"));
+        ad.setHasPrice(rs.getBoolean("has_price"));
+        ad.setValue(rs.getBigDecimal("value"));
+        ad.setCurrency(Currency.valueOf(rs.getString("currency")));
+        ad.setBasisOfNegotiation(rs.getBoolean("is_basis_of_negotiation"));
+        ad.setRelease(ZonedDateTime.of(rs.getObject("publishing_time", LocalDateTime.class), ZONE));
+        ad.setThumbnailId(DAOPsqlUtil.extractNullableLong("thumbnail_oid", rs));
+        ad.setCity(rs.getString("city"));
+        ad.setCategoryName(rs.getString("category_name"));
+        ad.setCreatorRating(rs.getBigDecimal("creator_rating"));
+        return ad;
+    }
+
+    /**
+     * Returns the number of the last page from the number of ads counted by a listing. If the count reached its limit, the listing has more
+     * ads, so the last page number is only estimated from the counted ones.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static int lastPageNumber(PaginationDTO pagination, long counted) {
+        if (counted >= countLimit(pagination)) {
+            return DAOPsqlUtil.estimatedLastPageNumber(pagination, counted);
+        }
+        pagination.setLastPageNumberEstimated(false);
+        return (int) Math.max(1, Math.ceilDiv(counted, pagination.getItemsPerPage()));
+    }
+
+    /**
+     * Returns the number of ads up to which a listing is counted. It covers the current page, so a page that is selected by its number is
+     * always part of the counted ads.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static int countLimit(PaginationDTO pagination) {
+        return (int) Math.max(DAOPsqlUtil.EXACT_COUNT_LIMIT, (long) pagination.getItemsPerPage() * pagination.getPageNumber()) + 1;
+    }
+
+    /**
+     * Returns the start of a listing query up to its tables. It selects the rows of the ads in the listing read model and the key they are
+     * sorted by if it is computed. A counted listing selects them in a subquery that is closed by {@link #pageClause(PaginationDTO, boolean)}
+     * and stops at the count limit, and counts the rows of the subquery before the page is cut off. So the count comes from the same
+     * execution as the page, but reads at most as many ads as the limit instead of all ads of the listing.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String listingSelect(PaginationDTO pagination, boolean withCount) {
+        String select = "SELECT l.*" + sortKeyColumn(pagination);
+        return withCount ? "SELECT m.*, COUNT(*) OVER() AS " + TOTAL_COUNT + " FROM (" + select : select;
+    }
+
+    /**
+     * Returns the number of ads the planner estimates for a listing that is neither searched nor filtered by a category, or zero if the
+     * listing is filtered and counted up to the count limit. Filtered listings are usually small, and the planner estimates their conditions
+     * too roughly.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private long estimateUnfilteredAds(PaginationDTO pagination, boolean releasedOnly) throws SQLException {
+        if (hasTextSearch(pagination) || hasLocationSearch(pagination.getSearch()) || hasCategoryFilter(pagination)) {
+            return 0;
+        }
+        return DAOPsqlUtil.estimateRows(getTransaction().getConnection(),
+                                        "SELECT 1 FROM schwarzes_brett.ad WHERE " + expiryCondition(pagination)
+                                        + (releasedOnly ? "AND publishing_time < NOW() " : "") + ";");
+    }
+
+    /**
+     * Returns the condition that hides expired ads unless the pagination shows them.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String expiryCondition(PaginationDTO pagination) {
+        return pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ";
+    }
+
+    /**
+     * Returns the condition that only selects the ads after the cursor of the pagination, or nothing if the page is selected by its number.
+     * Ties are always ordered by ascending id, so a descending listing bounds the sort column by the index and compares the id only for
+     * ads with the same sort key.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String seekCondition(PaginationDTO pagination) {
+        if (pagination.getCursor() == null) {
+            return "";
+        }
+        String column = sortExpression(pagination);
+        if (pagination.isSortAscending()) {
+            return "AND (" + column + ", ad.id) > (?, ?) ";
+        }
+        return "AND " + column + " <= ? AND (" + column + " < ? OR ad.id > ?) ";
+    }
+
+    /**
+     * Returns the order and limit of a listing. The id breaks ties between equal sort keys, so the order is total and a cursor identifies a
+     * position uniquely. Pages selected by their number skip the ads before them. A counted listing limits its subquery to the count limit
+     * and cuts the page off the counted rows in the same order. The limits and offset are parameters, so all pages of a listing share one
+     * statement.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String pageClause(PaginationDTO pagination, boolean withCount) {
+        String direction = pagination.isSortAscending() ? " ASC" : " DESC";
+        String clause = "ORDER BY " + sortExpression(pagination) + direction + ", ad.id ASC LIMIT ?";
+        if (withCount) {
+            clause += ") m ORDER BY m." + pagination.getSortBy() + direction + ", m.ad_id ASC LIMIT ?";
+        }
+        if (pagination.getCursor() == null) {
+            clause += " OFFSET ?";
+        }
+        return clause + ";";
+    }
+
+    /**
+     * Sets the count limit if the listing is counted, the limit and, if the page is selected by its number, the offset of a listing,
+     * starting at the given index.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static void setPageParameters(PaginationDTO pagination, PreparedStatement statement, int index, boolean withCount)
+            throws SQLException {
+        int next = index;
+        if (withCount) {
+            statement.setInt(next++, countLimit(pagination));
+        }
+        statement.setInt(next++, pagination.getItemsPerPage());
+        if (pagination.getCursor() == null) {
+            statement.setInt(next, pagination.getItemsPerPage() * (pagination.getPageNumber() - 1));
+        }
+    }
+
+
+    /**
+     * Sets the sort key and the id of the cursor of the pagination, starting at the given parameter index, if there is a cursor.
+     *
+     * @return The index of the next parameter.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static int setSeekParameters(PaginationDTO pagination, PreparedStatement statement, int index) throws SQLException {
+        PageCursor cursor = pagination.getCursor();
+        if (cursor == null) {
+            return index;
+        }
+        // Sent untyped, so the server compares the key with the type of the sort column.
+        int next = index;
+        statement.setObject(next++, cursor.sortKey(), Types.OTHER);
+        if (!pagination.isSortAscending()) {
+            statement.setObject(next++, cursor.sortKey(), Types.OTHER);
+        }
+        statement.setInt(next, cursor.id());
+        return next + 1;
     }
 
     /**
@@ -616,41 +789,30 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
      */
     @SuppressWarnings({"checkstyle:MagicNumber", "DuplicatedCode"})
     @Override
-    public List<AdDTO> fetchAds(PaginationDTO pagination) {
-        List<AdDTO> ads = new ArrayList<>();
+    public List<AdSummary> fetchAds(PaginationDTO pagination) {
+        List<AdSummary> ads = new ArrayList<>();
         try {
+            // Large listings without filters are estimated instead of counted, including the page behind the last one.
+            boolean withCount = pagination.getCursor() == null && estimateUnfilteredAds(pagination, true) <= DAOPsqlUtil.EXACT_COUNT_LIMIT;
+            IntSupplier lastPageQuery = () -> fetchLastPageNumber(pagination);
             logger.finest("Started preparing statement");
-            try (PreparedStatement statement = getTransaction().getConnection().prepareStatement(
-                    "SELECT * FROM schwarzes_brett.ad LEFT OUTER JOIN schwarzes_brett.contact_data contact ON contact = contact.id "
-                    + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND ((LOWER(contact.city) LIKE ('%' || ? || '%') OR ? IS NULL) OR (contact.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND (category = ? OR ? is null) "
-                    + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
-                    + "AND publishing_time < NOW() "
-                    + "ORDER BY " + pagination.getSortBy() + (pagination.isSortAscending() ? " ASC " : " DESC ")
-                    + "LIMIT " + pagination.getItemsPerPage() + " OFFSET " + (pagination.getItemsPerPage() * (pagination.getPageNumber() - 1))
-                    + ";")) {
-                String searchTerm = pagination.getSearch().getSearchTerm();
-                String locationSearch = pagination.getSearch().getLocationSearch();
-                Integer category = pagination.getCategory().getId();
-
-                statement.setString(1, searchTerm == null ? null : searchTerm.toLowerCase());
-                statement.setString(2, pagination.getSearch().getSearchTerm());
-                statement.setString(3, searchTerm == null ? null : searchTerm.toLowerCase());
-                statement.setString(4, pagination.getSearch().getSearchTerm());
-                statement.setString(5, locationSearch == null ? null : locationSearch.toLowerCase());
-                statement.setString(6, pagination.getSearch().getLocationSearch());
-                statement.setString(7, locationSearch == null ? null : locationSearch.toLowerCase());
-                statement.setString(8, pagination.getSearch().getLocationSearch());
-                if (category == null || category == 0) {
-                    statement.setNull(9, Types.INTEGER);
-                    statement.setNull(10, Types.INTEGER);
-                } else {
-                    statement.setInt(9, category);
-                    statement.setInt(10, category);
-                }
-
-                fetchAdsFromResultSet(ads, statement);
+            String query = LISTINGS.get(ListingVariant.of(Listing.RELEASED, pagination, withCount), () ->
+                    listingSelect(pagination, withCount) + " FROM schwarzes_brett.ad " + LISTING_JOIN
+                    + locationJoin(pagination)
+                    + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                    + locationCondition(pagination.getSearch())
+                    + categoryCondition(pagination)
+                    + "AND " + expiryCondition(pagination)
+                    + "AND ad.publishing_time < NOW() "
+                    + seekCondition(pagination)
+                    + pageClause(pagination, withCount));
+            try (PreparedStatement statement = getTransaction().getConnection().prepareStatement(query)) {
+                int index = setSearchSourceParameters(pagination, statement, 1);
+                index = setLocationParameters(pagination.getSearch(), statement, index);
+                index = setCategoryParameters(pagination, statement, index);
+                setPageParameters(pagination, statement, setSeekParameters(pagination, statement, index), withCount);
+
+                fetchAdsFromResultSet(ads, pagination, statement, withCount, lastPageQuery);
             }
 
         } catch (SQLException e) {
@@ -667,40 +829,29 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
      */
     @SuppressWarnings({"checkstyle:MagicNumber", "DuplicatedCode"})
     @Override
-    public List<AdDTO> fetchAdsWithUnreleased(PaginationDTO pagination) {
-        List<AdDTO> ads = new ArrayList<>();
+    public List<AdSummary> fetchAdsWithUnreleased(PaginationDTO pagination) {
+        List<AdSummary> ads = new ArrayList<>();
         try {
+            // Large listings without filters are estimated instead of counted, including the page behind the last one.
+            boolean withCount = pagination.getCursor() == null && estimateUnfilteredAds(pagination, false) <= DAOPsqlUtil.EXACT_COUNT_LIMIT;
+            IntSupplier lastPageQuery = () -> fetchLastPageNumberWithUnreleased(pagination);
             logger.finest("Started preparing statement");
-            try (PreparedStatement statement = getTransaction().getConnection().prepareStatement(
-                    "SELECT * FROM schwarzes_brett.ad LEFT OUTER JOIN schwarzes_brett.contact_data contact ON contact = contact.id "
-                    + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL))"
-                    + "AND ((LOWER(contact.city) LIKE ('%' || ? || '%') OR ? IS NULL) OR (contact.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND (category = ? OR ? is null) "
-                    + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
-                    + "ORDER BY " + pagination.getSortBy() + (pagination.isSortAscending() ? " ASC " : " DESC ")
-                    + "LIMIT " + pagination.getItemsPerPage() + " OFFSET " + (pagination.getItemsPerPage() * (pagination.getPageNumber() - 1))
-                    + ";")) {
-                String searchTerm = pagination.getSearch().getSearchTerm();
-                String locationSearch = pagination.getSearch().getLocationSearch();
-                Integer category = pagination.getCategory().getId();
-
-                statement.setString(1, searchTerm == null ? null : searchTerm.toLowerCase());
-                statement.setString(2, pagination.getSearch().getSearchTerm());
-                statement.setString(3, searchTerm == null ? null : searchTerm.toLowerCase());
-                statement.setString(4, pagination.getSearch().getSearchTerm());
-                statement.setString(5, locationSearch == null ? null : locationSearch.toLowerCase());
-                statement.setString(6, pagination.getSearch().getLocationSearch());
-                statement.setString(7, locationSearch == null ? null : locationSearch.toLowerCase());
-                statement.setString(8, pagination.getSearch().getLocationSearch());
-                if (category == null || category == 0) {
-                    statement.setNull(9, Types.INTEGER);
-                    statement.setNull(10, Types.INTEGER);
-                } else {
-                    statement.setInt(9, category);
-                    statement.setInt(10, category);
-                }
-
-                fetchAdsFromResultSet(ads, statement);
+            String query = LISTINGS.get(ListingVariant.of(Listing.WITH_UNRELEASED, pagination, withCount), () ->
+                    listingSelect(pagination, withCount) + " FROM schwarzes_brett.ad " + LISTING_JOIN
+                    + locationJoin(pagination)
+                    + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                    + locationCondition(pagination.getSearch())
+                    + categoryCondition(pagination)
+                    + "AND " + expiryCondition(pagination)
+                    + seekCondition(pagination)
+                    + pageClause(pagination, withCount));
+            try (PreparedStatement statement = getTransaction().getConnection().prepareStatement(query)) {
+                int index = setSearchSourceParameters(pagination, statement, 1);
+                index = setLocationParameters(pagination.getSearch(), statement, index);
+                index = setCategoryParameters(pagination, statement, index);
+                setPageParameters(pagination, statement, setSeekParameters(pagination, statement, index), withCount);
+
+                fetchAdsFromResultSet(ads, pagination, statement, withCount, lastPageQuery);
             }
 
         } catch (SQLException e) {
@@ -720,12 +871,12 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
         int items = 1;
         try (PreparedStatement ps = getTransaction().getConnection().prepareStatement(
                 "SELECT count(*) as total FROM schwarzes_brett.ad ad "
-                + "LEFT JOIN schwarzes_brett.contact_data c ON ad.contact = c.id "
-                + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL))"
-                + "AND ad.creator = ?"
-                + "AND ((LOWER(c.city) LIKE ('%' || ? || '%') OR ? IS NULL) "
-                + "OR (c.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL));")
+                + locationJoin(pagination)
+                + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                + "AND ad.creator = ? "
+                + locationCondition(pagination.getSearch())
+                + "AND " + expiryCondition(pagination)
+                + ";"
         )) {
             setFetchOwnAdsQueryParams(pagination, user, ps);
             try (ResultSet rs = ps.executeQuery()) {
@@ -750,18 +901,11 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     public int fetchFollowedAdsLastPageNumber(PaginationDTO pagination, UserDTO user) {
         int items = 1;
         try (PreparedStatement ps = getTransaction().getConnection().prepareStatement(
-                ("SELECT count(*) as total FROM "
-                 + "(SELECT ad.* FROM schwarzes_brett.ad ad "
-                 + "LEFT OUTER JOIN schwarzes_brett.abonnement a ON ad.id = a.ad "
-                 + "WHERE \"user\" = ? "
-                 + "UNION "
-                 + "SELECT ad.* FROM schwarzes_brett.ad ad "
-                 + "LEFT JOIN schwarzes_brett.follow f ON f.followed_user = ad.creator WHERE following_user = ?) ad "
-                 + "LEFT JOIN schwarzes_brett.contact_data c ON ad.contact = c.id "
-                 + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                 + "AND ((LOWER(c.city) LIKE ('%' || ? || '%') OR ? IS NULL) "
-                 + "OR (c.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                 + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
+                ("SELECT count(*) as total FROM " + FOLLOW_FEED_SOURCE
+                 + locationJoin(pagination)
+                 + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                 + locationCondition(pagination.getSearch())
+                 + "AND " + expiryCondition(pagination)
                  + "AND publishing_time < NOW();")
         )) {
             setFetchFollowedAdsQueryParams(pagination, user, ps);
@@ -789,12 +933,11 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
         try (PreparedStatement ps = getTransaction().getConnection().prepareStatement(
                 ("SELECT count(*) as total FROM (SELECT * FROM schwarzes_brett.ad ad WHERE EXISTS ("
                  + "SELECT 1 FROM schwarzes_brett.message m WHERE m.ad_id = ad.id AND (m.author = ? OR m.addressee = ?))) ad "
-                 + "LEFT OUTER JOIN schwarzes_brett.contact_data c ON ad.contact = c.id "
-                 + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                 + "AND ((LOWER(c.city) LIKE ('%' || ? || '%') OR ? IS NULL) "
-                 + "OR (c.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                 + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
-                 + "AND publishing_time < NOW() ")
+                 + locationJoin(pagination)
+                 + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                 + locationCondition(pagination.getSearch())
+                 + "AND " + expiryCondition(pagination)
+                 + "AND publishing_time < NOW();")
         )) {
             setFetchCommentedAdsQueryParams(pagination, user, ps);
 
@@ -856,60 +999,303 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
         }
     }
 
-    @SuppressWarnings("checkstyle:MagicNumber")
-    private void setFetchCommentedAdsQueryParams(PaginationDTO pagination, UserDTO user, PreparedStatement ps) throws SQLException {
-        String searchTerm = pagination.getSearch().getSearchTerm();
-        String locationSearch = pagination.getSearch().getLocationSearch();
-
+    /**
+     * Sets the parameters of the commented ads queries.
+     *
+     * @return The index of the next parameter.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod", "checkstyle:MagicNumber"})
+    private int setFetchCommentedAdsQueryParams(PaginationDTO pagination, UserDTO user, PreparedStatement ps) throws SQLException {
         ps.setInt(1, user.getId());
         ps.setInt(2, user.getId());
-        ps.setString(3, searchTerm == null ? null : searchTerm.toLowerCase());
-        ps.setString(4, pagination.getSearch().getSearchTerm());
-        ps.setString(5, searchTerm == null ? null : searchTerm.toLowerCase());
-        ps.setString(6, pagination.getSearch().getSearchTerm());
-        ps.setString(7, locationSearch == null ? null : locationSearch.toLowerCase());
-        ps.setString(8, pagination.getSearch().getLocationSearch());
-        ps.setString(9, locationSearch == null ? null : locationSearch.toLowerCase());
-        ps.setString(10, pagination.getSearch().getLocationSearch());
+        int index = setSearchSourceParameters(pagination, ps, 3);
+        return setLocationParameters(pagination.getSearch(), ps, index);
     }
 
     /**
+     * Sets the parameters of the followed ads queries.
+     *
+     * @return The index of the next parameter.
      * @author Jonas Elsper
      */
     @SuppressWarnings({"checkstyle:JavadocMethod", "checkstyle:MagicNumber", "DuplicatedCode"})
-    private void setFetchFollowedAdsQueryParams(PaginationDTO pagination, UserDTO user, PreparedStatement ps) throws SQLException {
-        String searchTerm = pagination.getSearch().getSearchTerm();
-        String locationSearch = pagination.getSearch().getLocationSearch();
-
+    private int setFetchFollowedAdsQueryParams(PaginationDTO pagination, UserDTO user, PreparedStatement ps) throws SQLException {
         ps.setInt(1, user.getId());
-        ps.setInt(2, user.getId());
-        ps.setString(3, searchTerm == null ? null : searchTerm.toLowerCase());
-        ps.setString(4, pagination.getSearch().getSearchTerm());
-        ps.setString(5, searchTerm == null ? null : searchTerm.toLowerCase());
-        ps.setString(6, pagination.getSearch().getSearchTerm());
-        ps.setString(7, locationSearch == null ? null : locationSearch.toLowerCase());
-        ps.setString(8, pagination.getSearch().getLocationSearch());
-        ps.setString(9, locationSearch == null ? null : locationSearch.toLowerCase());
-        ps.setString(10, pagination.getSearch().getLocationSearch());
+        int index = setSearchSourceParameters(pagination, ps, 2);
+        return setLocationParameters(pagination.getSearch(), ps, index);
     }
 
     /**
+     * Sets the parameters of the own ads queries.
+     *
+     * @return The index of the next parameter.
      * @author Jonas Elsper
      */
-    @SuppressWarnings({"checkstyle:JavadocMethod", "checkstyle:MagicNumber"})
-    private void setFetchOwnAdsQueryParams(PaginationDTO pagination, UserDTO user, PreparedStatement ps) throws SQLException {
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private int setFetchOwnAdsQueryParams(PaginationDTO pagination, UserDTO user, PreparedStatement ps) throws SQLException {
+        int index = setSearchSourceParameters(pagination, ps, 1);
+        ps.setInt(index, user.getId());
+        return setLocationParameters(pagination.getSearch(), ps, index + 1);
+    }
+
+    /**
+     * Returns the join of the contact data, which is only needed to filter by location.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String locationJoin(PaginationDTO pagination) {
+        return hasLocationSearch(pagination.getSearch()) ? "JOIN schwarzes_brett.contact_data c ON ad.contact = c.id " : "";
+    }
+
+    /**
+     * Returns the condition that only selects ads at the searched location. A number is matched as prefix of the postcode, anything else as
+     * part of the city or as a city with a similar name, which tolerates typos. Both are served by the trigram indexes on the contact data.
+     * With a radius, the ads within the radius around the location of the postcode or place are selected instead.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    static String locationCondition(SearchDTO search) {
+        if (!hasLocationSearch(search)) {
+            return "";
+        } else if (hasRadiusSearch(search)) {
+            // The box is served by the spatial index, so the distance is only computed for the contact data inside of it.
+            return "AND point(c.longitude, c.latitude) <@ schwarzes_brett.radius_box(origin.latitude, origin.longitude, ?) "
+                   + "AND " + DISTANCE + " <= ? ";
+        } else if (isPostcode(search.getLocationSearch())) {
+            return "AND c.postcode LIKE ? ";
+        } else {
+            return "AND (LOWER(c.city) LIKE ? OR LOWER(c.city) OPERATOR(schwarzes_brett.%) ?) ";
+        }
+    }
+
+    /**
+     * Sets the parameters of the location search, starting at the given index.
+     *
+     * @return The index of the next parameter.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    static int setLocationParameters(SearchDTO search, PreparedStatement ps, int index) throws SQLException {
+        if (!hasLocationSearch(search)) {
+            return index;
+        } else if (hasRadiusSearch(search)) {
+            ps.setDouble(index, search.getRadius());
+            ps.setDouble(index + 1, search.getRadius());
+            return index + 2;
+        }
+        String location = search.getLocationSearch().strip().toLowerCase();
+        if (isPostcode(location)) {
+            ps.setString(index, location + "%");
+            return index + 1;
+        }
+        ps.setString(index, "%" + escapeLikePattern(location) + "%");
+        ps.setString(index + 1, location);
+        return index + 2;
+    }
+
+    /**
+     * Returns the kind of condition the location search uses, or null if there is no location search.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String locationKind(SearchDTO search) {
+        if (!hasLocationSearch(search)) {
+            return null;
+        } else if (hasRadiusSearch(search)) {
+            return "radius";
+        }
+        return isPostcode(search.getLocationSearch()) ? "postcode" : "city";
+    }
+
+    /**
+     * Returns whether the search is restricted to a location.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static boolean hasLocationSearch(SearchDTO search) {
+        return search.getLocationSearch() != null && !search.getLocationSearch().isBlank();
+    }
+
+    /**
+     * Returns whether the search is restricted to a radius around a location.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static boolean hasRadiusSearch(SearchDTO search) {
+        return hasLocationSearch(search) && search.getRadius() != null && search.getRadius() > 0;
+    }
+
+    /**
+     * Returns the source of the coordinates of the searched postcode or place named {@code origin}, or nothing if there is no radius search.
+     * The coordinates are null if the location is unknown, so no ads are found.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    static String radiusSource(SearchDTO search) {
+        if (!hasRadiusSearch(search)) {
+            return "";
+        }
+        return ", (SELECT AVG(latitude) AS latitude, AVG(longitude) AS longitude FROM schwarzes_brett.postcode_location "
+               + "WHERE postcode = ? OR LOWER(place) = ?) origin ";
+    }
+
+    /**
+     * Sets the searched location as postcode and place, starting at the given index, if there is a radius search.
+     *
+     * @return The index of the next parameter.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    static int setRadiusSourceParameters(SearchDTO search, PreparedStatement ps, int index) throws SQLException {
+        if (!hasRadiusSearch(search)) {
+            return index;
+        }
+        String location = search.getLocationSearch().strip();
+        ps.setString(index, location);
+        ps.setString(index + 1, location.toLowerCase());
+        return index + 2;
+    }
+
+    /**
+     * Returns whether the searched location is a postcode or the beginning of one.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static boolean isPostcode(String location) {
+        return POSTCODE.matcher(location.strip()).matches();
+    }
+
+    /**
+     * Escapes the wildcards of a {@code LIKE} pattern, so the user input is matched literally.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String escapeLikePattern(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Sets the parameters of the category filter, starting at the given index.
+     *
+     * @return The index of the next parameter.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static int setCategoryParameters(PaginationDTO pagination, PreparedStatement ps, int index) throws SQLException {
+        if (!hasCategoryFilter(pagination)) {
+            return index;
+        }
+        ps.setInt(index, pagination.getCategory().getId());
+        return index + 1;
+    }
+
+    /**
+     * Returns the condition that only selects the ads of the category of the pagination and all its subcategories. The path of the category
+     * is looked up once and matched against the paths of the ads by their index.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String categoryCondition(PaginationDTO pagination) {
+        if (!hasCategoryFilter(pagination)) {
+            return "";
+        }
+        return "AND ad.category_path OPERATOR(schwarzes_brett.<@) (SELECT path FROM schwarzes_brett.category WHERE id = ?) ";
+    }
+
+    /**
+     * Returns whether the listing is restricted to a category other than the root category.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static boolean hasCategoryFilter(PaginationDTO pagination) {
+        Integer category = pagination.getCategory().getId();
+        return category != null && category != 0;
+    }
+
+    /**
+     * Returns whether the pagination searches for a term in the title and description of the ads.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static boolean hasTextSearch(PaginationDTO pagination) {
         String searchTerm = pagination.getSearch().getSearchTerm();
-        String locationSearch = pagination.getSearch().getLocationSearch();
+        return searchTerm != null && !searchTerm.isBlank();
+    }
+
+    /**
+     * Returns the text search configuration for the language of the searching user. Ads are indexed in all supported languages, so the
+     * configuration only decides how the search term is stemmed.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String textSearchConfiguration(PaginationDTO pagination) {
+        Locale locale = pagination.getSearch().getLocale();
+        return locale == null || locale.getLanguage().equals(Locale.GERMAN.getLanguage()) ? "german" : "english";
+    }
+
+    /**
+     * Returns the sources the conditions of a search refer to, which are joined to the ads of a listing.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String searchSources(PaginationDTO pagination) {
+        return textSearchSource(pagination) + radiusSource(pagination.getSearch());
+    }
+
+    /**
+     * Sets the parameters of the sources of a search, starting at the given index.
+     *
+     * @return The index of the next parameter.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static int setSearchSourceParameters(PaginationDTO pagination, PreparedStatement ps, int index) throws SQLException {
+        return setRadiusSourceParameters(pagination.getSearch(), ps, setTextSearchParameters(pagination, ps, index));
+    }
 
-        ps.setString(1, searchTerm == null ? null : searchTerm.toLowerCase());
-        ps.setString(2, pagination.getSearch().getSearchTerm());
-        ps.setString(3, searchTerm == null ? null : searchTerm.toLowerCase());
-        ps.setString(4, pagination.getSearch().getSearchTerm());
-        ps.setInt(5, user.getId());
-        ps.setString(6, locationSearch == null ? null : locationSearch.toLowerCase());
-        ps.setString(7, pagination.getSearch().getLocationSearch());
-        ps.setString(8, locationSearch == null ? null : locationSearch.toLowerCase());
-        ps.setString(9, pagination.getSearch().getLocationSearch());
+    /**
+     * Returns the source of the parsed search term named {@code query}, which is joined to the ads of a listing. Nothing is returned if there
+     * is no search term.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String textSearchSource(PaginationDTO pagination) {
+        if (!hasTextSearch(pagination)) {
+            return "";
+        }
+        // The configuration is a literal, so the planner can evaluate the query once and serve the match from the GIN index.
+        return ", websearch_to_tsquery('" + textSearchConfiguration(pagination) + "', ?) query ";
+    }
+
+    /**
+     * Returns the condition that only selects the ads matching the search term.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String textSearchCondition(PaginationDTO pagination) {
+        return hasTextSearch(pagination) ? "ad.search_vector @@ query " : "TRUE ";
+    }
+
+    /**
+     * Sets the search term, if there is one, at the given index.
+     *
+     * @return The index of the next parameter.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static int setTextSearchParameters(PaginationDTO pagination, PreparedStatement ps, int index) throws SQLException {
+        if (!hasTextSearch(pagination)) {
+            return index;
+        }
+        ps.setString(index, pagination.getSearch().getSearchTerm());
+        return index + 1;
+    }
+
+    /**
+     * Returns the expression the listing is sorted by. The relevance is the rank of an ad for the search term and the distance is measured
+     * from the location of a radius search. Both are the same for all ads if there is no such search.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String sortExpression(PaginationDTO pagination) {
+        if (PaginationDTO.SORT_BY_RELEVANCE.equals(pagination.getSortBy())) {
+            return hasTextSearch(pagination) ? "ts_rank(ad.search_vector, query)" : "CAST(0 AS REAL)";
+        } else if (PaginationDTO.SORT_BY_DISTANCE.equals(pagination.getSortBy())) {
+            return hasRadiusSearch(pagination.getSearch()) ? DISTANCE : "CAST(0 AS DOUBLE PRECISION)";
+        }
+        return "ad." + pagination.getSortBy();
+    }
+
+    /**
+     * Returns the relevance or distance as additional column of a listing sorted by it, so the cursor of the next page can be read from the
+     * last row.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String sortKeyColumn(PaginationDTO pagination) {
+        String sortBy = pagination.getSortBy();
+        if (PaginationDTO.SORT_BY_RELEVANCE.equals(sortBy) || PaginationDTO.SORT_BY_DISTANCE.equals(sortBy)) {
+            return ", " + sortExpression(pagination) + " AS " + sortBy;
+        }
+        return "";
     }
 
     /**
@@ -922,36 +1308,24 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     public int fetchLastPageNumber(PaginationDTO pagination) {
         int items = 1;
         try {
+            long estimate = estimateUnfilteredAds(pagination, true);
+            if (estimate > DAOPsqlUtil.EXACT_COUNT_LIMIT) {
+                return DAOPsqlUtil.estimatedLastPageNumber(pagination, estimate);
+            }
+            pagination.setLastPageNumberEstimated(false);
 
             logger.finest("Started preparing statement");
             try (PreparedStatement statement = getTransaction().getConnection().prepareStatement(
-                    "SELECT COUNT(*) AS total FROM schwarzes_brett.ad LEFT OUTER JOIN schwarzes_brett.contact_data contact ON contact = contact.id "
-                    + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND ((LOWER(contact.city) LIKE ('%' || ? || '%') OR ? IS NULL) OR (contact.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND (category = ? OR ? is null) "
-                    + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
+                    "SELECT COUNT(*) AS total FROM schwarzes_brett.ad " + locationJoin(pagination)
+                    + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                    + locationCondition(pagination.getSearch())
+                    + categoryCondition(pagination)
+                    + "AND " + expiryCondition(pagination)
                     + "AND publishing_time < NOW() "
                     + ";"
             )) {
-                String searchTerm = pagination.getSearch().getSearchTerm();
-                String locationSearch = pagination.getSearch().getLocationSearch();
-                Integer category = pagination.getCategory().getId();
-
-                statement.setString(1, searchTerm == null ? null : searchTerm.toLowerCase());
-                statement.setString(2, pagination.getSearch().getSearchTerm());
-                statement.setString(3, searchTerm == null ? null : searchTerm.toLowerCase());
-                statement.setString(4, pagination.getSearch().getSearchTerm());
-                statement.setString(5, locationSearch == null ? null : locationSearch.toLowerCase());
-                statement.setString(6, pagination.getSearch().getLocationSearch());
-                statement.setString(7, locationSearch == null ? null : locationSearch.toLowerCase());
-                statement.setString(8, pagination.getSearch().getLocationSearch());
-                if (category == null || category == 0) {
-                    statement.setNull(9, Types.INTEGER);
-                    statement.setNull(10, Types.INTEGER);
-                } else {
-                    statement.setInt(9, category);
-                    statement.setInt(10, category);
-                }
+                int index = setSearchSourceParameters(pagination, statement, 1);
+                setCategoryParameters(pagination, statement, setLocationParameters(pagination.getSearch(), statement, index));
 
                 try (ResultSet rs = statement.executeQuery()) {
                     if (rs.next()) {
@@ -978,35 +1352,23 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     public int fetchLastPageNumberWithUnreleased(PaginationDTO pagination) {
         int items = 1;
         try {
+            long estimate = estimateUnfilteredAds(pagination, false);
+            if (estimate > DAOPsqlUtil.EXACT_COUNT_LIMIT) {
+                return DAOPsqlUtil.estimatedLastPageNumber(pagination, estimate);
+            }
+            pagination.setLastPageNumberEstimated(false);
 
             logger.finest("Started preparing statement");
             try (PreparedStatement statement = getTransaction().getConnection().prepareStatement(
-                    "SELECT COUNT(*) AS total FROM schwarzes_brett.ad LEFT OUTER JOIN schwarzes_brett.contact_data contact ON contact = contact.id "
-                    + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND ((LOWER(contact.city) LIKE ('%' || ? || '%') OR ? IS NULL) OR (contact.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND (category = ? OR ? is null) "
-                    + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
+                    "SELECT COUNT(*) AS total FROM schwarzes_brett.ad " + locationJoin(pagination)
+                    + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                    + locationCondition(pagination.getSearch())
+                    + categoryCondition(pagination)
+                    + "AND " + expiryCondition(pagination)
                     + ";"
             )) {
-                String searchTerm = pagination.getSearch().getSearchTerm();
-                String locationSearch = pagination.getSearch().getLocationSearch();
-                Integer category = pagination.getCategory().getId();
-
-                statement.setString(1, searchTerm == null ? null : searchTerm.toLowerCase());
-                statement.setString(2, pagination.getSearch().getSearchTerm());
-                statement.setString(3, searchTerm == null ? null : searchTerm.toLowerCase());
-                statement.setString(4, pagination.getSearch().getSearchTerm());
-                statement.setString(5, locationSearch == null ? null : locationSearch.toLowerCase());
-                statement.setString(6, pagination.getSearch().getLocationSearch());
-                statement.setString(7, locationSearch == null ? null : locationSearch.toLowerCase());
-                statement.setString(8, pagination.getSearch().getLocationSearch());
-                if (category == null || category == 0) {
-                    statement.setNull(9, Types.INTEGER);
-                    statement.setNull(10, Types.INTEGER);
-                } else {
-                    statement.setInt(9, category);
-                    statement.setInt(10, category);
-                }
+                int index = setSearchSourceParameters(pagination, statement, 1);
+                setCategoryParameters(pagination, statement, setLocationParameters(pagination.getSearch(), statement, index));
 
                 try (ResultSet rs = statement.executeQuery()) {
                     if (rs.next()) {
@@ -1029,31 +1391,26 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
      * @author Jonas Elsper
      */
     @Override
-    public List<AdDTO> fetchFollowedAds(PaginationDTO pagination, UserDTO user) {
-        List<AdDTO> ads = new ArrayList<>();
+    public List<AdSummary> fetchFollowedAds(PaginationDTO pagination, UserDTO user) {
+        List<AdSummary> ads = new ArrayList<>();
         try {
             logger.finest("Started preparing statement");
-            try (PreparedStatement ps = getTransaction().getConnection().prepareStatement(
-                    "SELECT * FROM ("
-                    + "SELECT ad.* FROM schwarzes_brett.ad ad "
-                    + "LEFT OUTER JOIN schwarzes_brett.abonnement a ON ad.id = a.ad "
-                    + "WHERE \"user\" = ? "
-                    + "UNION "
-                    + "SELECT ad.* FROM schwarzes_brett.ad ad "
-                    + "LEFT JOIN schwarzes_brett.follow f ON f.followed_user = ad.creator WHERE following_user = ?) ad "
-                    + "LEFT JOIN schwarzes_brett.contact_data c ON ad.contact = c.id "
-                    + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND ((LOWER(c.city) LIKE ('%' || ? || '%') OR ? IS NULL) "
-                    + "OR (c.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
-                    + "AND publishing_time < NOW() "
-                    + "ORDER BY " + pagination.getSortBy() + (pagination.isSortAscending() ? " ASC " : " DESC ")
-                    + "LIMIT " + pagination.getItemsPerPage()
-                    + " OFFSET " + (pagination.getItemsPerPage() * (pagination.getPageNumber() - 1)) + ";")) {
-
-                setFetchFollowedAdsQueryParams(pagination, user, ps);
-
-                fetchAdsFromResultSet(ads, ps);
+            boolean withCount = pagination.getCursor() == null;
+            String query = LISTINGS.get(ListingVariant.of(Listing.FOLLOWED, pagination, withCount), () ->
+                    listingSelect(pagination, withCount) + " FROM " + FOLLOW_FEED_SOURCE + LISTING_JOIN
+                    + locationJoin(pagination)
+                    + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                    + locationCondition(pagination.getSearch())
+                    + "AND " + expiryCondition(pagination)
+                    + "AND ad.publishing_time < NOW() "
+                    + seekCondition(pagination)
+                    + pageClause(pagination, withCount));
+            try (PreparedStatement ps = getTransaction().getConnection().prepareStatement(query)) {
+
+                int index = setSeekParameters(pagination, ps, setFetchFollowedAdsQueryParams(pagination, user, ps));
+                setPageParameters(pagination, ps, index, withCount);
+
+                fetchAdsFromResultSet(ads, pagination, ps, withCount, () -> fetchFollowedAdsLastPageNumber(pagination, user));
             }
 
         } catch (SQLException e) {
@@ -1069,26 +1426,27 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
      * @author Jonas Elsper
      */
     @Override
-    public List<AdDTO> fetchCommentedAds(PaginationDTO pagination, UserDTO user) {
-        List<AdDTO> ads = new ArrayList<>();
+    public List<AdSummary> fetchCommentedAds(PaginationDTO pagination, UserDTO user) {
+        List<AdSummary> ads = new ArrayList<>();
         try {
             logger.finest("Started preparing statement");
-            try (PreparedStatement ps = getTransaction().getConnection().prepareStatement(
-                    "SELECT * FROM (SELECT * FROM schwarzes_brett.ad ad WHERE EXISTS ("
-                    + "SELECT 1 FROM schwarzes_brett.message m WHERE m.ad_id = ad.id AND (m.author = ? OR m.addressee = ?))) ad "
-                    + "LEFT OUTER JOIN schwarzes_brett.contact_data c ON ad.contact = c.id "
-                    + "WHERE ((LOWER(title) LIKE ('%' || ? || '%') OR ? IS NULL) OR ((LOWER(ad.description)) LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND ((LOWER(c.city) LIKE ('%' || ? || '%') OR ? IS NULL) "
-                    + "OR (c.postcode LIKE ('%' || ? || '%') OR ? IS NULL)) "
-                    + "AND " + (pagination.isShowExpiredAds() ? "TRUE " : "((termination_time > NOW()) OR (termination_time IS NULL)) ")
-                    + "AND publishing_time < NOW() "
-                    + "ORDER BY " + pagination.getSortBy() + (pagination.isSortAscending() ? " ASC " : " DESC ")
-                    + "LIMIT " + pagination.getItemsPerPage()
-                    + " OFFSET " + (pagination.getItemsPerPage() * (pagination.getPageNumber() - 1)) + ";")) {
-
-                setFetchCommentedAdsQueryParams(pagination, user, ps);
-
-                fetchAdsFromResultSet(ads, ps);
+            boolean withCount = pagination.getCursor() == null;
+            String query = LISTINGS.get(ListingVariant.of(Listing.COMMENTED, pagination, withCount), () ->
+                    listingSelect(pagination, withCount) + " FROM (SELECT * FROM schwarzes_brett.ad ad WHERE EXISTS ("
+                    + "SELECT 1 FROM schwarzes_brett.message m WHERE m.ad_id = ad.id AND (m.author = ? OR m.addressee = ?))) ad " + LISTING_JOIN
+                    + locationJoin(pagination)
+                    + searchSources(pagination) + "WHERE " + textSearchCondition(pagination)
+                    + locationCondition(pagination.getSearch())
+                    + "AND " + expiryCondition(pagination)
+                    + "AND ad.publishing_time < NOW() "
+                    + seekCondition(pagination)
+                    + pageClause(pagination, withCount));
+            try (PreparedStatement ps = getTransaction().getConnection().prepareStatement(query)) {
+
+                int index = setSeekParameters(pagination, ps, setFetchCommentedAdsQueryParams(pagination, user, ps));
+                setPageParameters(pagination, ps, index, withCount);
+
+                fetchAdsFromResultSet(ads, pagination, ps, withCount, () -> fetchCommentedAdsLastPageNumber(pagination, user));
             }
 
         } catch (SQLException e) {
@@ -1144,12 +1502,13 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
     @SuppressWarnings({"checkstyle:MagicNumber"})
     public void updateThumbnail(AdDTO ad, int index) {
         Connection connection = getTransaction().getConnection();
-        String query = "UPDATE schwarzes_brett.image SET is_thumbnail = false WHERE ad_id = ? AND is_thumbnail = true;"
-                       + "UPDATE schwarzes_brett.image SET is_thumbnail = true WHERE ad_id = ? AND image_oid = ?;";
+        // One statement moves the flag, so only the old and the new thumbnail are written and no round trip is needed per image.
+        String query = "UPDATE schwarzes_brett.image SET is_thumbnail = (image_oid = ?) WHERE ad_id = ? AND (is_thumbnail OR image_oid = ?);";
         try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setLong(1, ad.getId());
-            statement.setLong(2, ad.getId());
-            statement.setLong(3, ad.getImages().get(index).getId());
+            long thumbnailId = ad.getImages().get(index).getId();
+            statement.setLong(1, thumbnailId);
+            statement.setInt(2, ad.getId());
+            statement.setLong(3, thumbnailId);
             statement.executeUpdate();
         } catch (SQLException e) {
             String message = "Failed to change the thumbnail of the ad.";
@@ -1158,4 +1517,45 @@ public class AdDAOPsql extends BaseDAOPsql implements AdDAO {
             throw new DataStorageAccessException(message, e);
         }
     }
+
+    /**
+     * The listings of ads, which differ in the ads they select.
+     */
+    private enum Listing {
+        RELEASED, WITH_UNRELEASED, OWN, FOLLOWED, COMMENTED
+    }
+
+    /**
+     * The variant of a listing query, which determines its SQL text. The location search is distinguished by the condition it uses, and
+     * the text search by the configuration the search term is parsed with.
+     *
+     * @param listing        The listing.
+     * @param sortBy         The whitelisted sort column.
+     * @param ascending      Whether the listing is sorted ascending.
+     * @param showExpiredAds Whether expired ads are listed.
+     * @param textSearch     The text search configuration, or null without a search term.
+     * @param location       The kind of the location search, or null without one.
+     * @param category       Whether the listing is filtered by a category.
+     * @param cursor         Whether the page starts after a cursor.
+     * @param withCount      Whether the ads of the listing are counted.
+     */
+    private record ListingVariant(Listing listing, String sortBy, boolean ascending, boolean showExpiredAds, String textSearch,
+                                  String location, boolean category, boolean cursor, boolean withCount) {
+
+        /**
+         * Returns the variant of a listing for a pagination.
+         *
+         * @throws IllegalArgumentException If the pagination is sorted by a column that listings cannot be sorted by.
+         */
+        @SuppressWarnings({"checkstyle:JavadocMethod"})
+        static ListingVariant of(Listing listing, PaginationDTO pagination, boolean withCount) {
+            if (!SORT_COLUMNS.contains(pagination.getSortBy())) {
+                throw new IllegalArgumentException("Ads cannot be sorted by " + pagination.getSortBy() + ".");
+            }
+            return new ListingVariant(listing, pagination.getSortBy(), pagination.isSortAscending(), pagination.isShowExpiredAds(),
+                                      hasTextSearch(pagination) ? textSearchConfiguration(pagination) : null,
+                                      locationKind(pagination.getSearch()), hasCategoryFilter(pagination), pagination.getCursor() != null,
+                                      withCount);
+        }
+    }
 }
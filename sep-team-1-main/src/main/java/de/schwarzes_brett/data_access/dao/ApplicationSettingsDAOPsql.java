@@ -1,6 +1,7 @@
 package de.schwarzes_brett.data_access.dao;
 
 import de.schwarzes_brett.data_access.cache.ApplicationSettingsDaoCache;
+import de.schwarzes_brett.data_access.cache.CacheInvalidationBus;
 import de.schwarzes_brett.data_access.exception.DataStorageAccessException;
 import de.schwarzes_brett.data_access.transaction.TransactionPsql;
 import de.schwarzes_brett.dto.ApplicationSettingsDTO;
@@ -11,6 +12,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -43,11 +45,21 @@ public class ApplicationSettingsDAOPsql extends BaseDAOPsql implements Applicati
         if (clearCache) {
             CACHE.invalidate();
         } else if (settingsToBeCached != null) {
-            CACHE.setValue(settingsToBeCached);
+            CACHE.setValue(settingsToBeCached, getTransaction().getCacheVersion());
             settingsToBeCached = null;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publishInvalidations() throws SQLException {
+        if (clearCache) {
+            CacheInvalidationBus.getInstance().publish(getTransaction().getConnection(), CacheInvalidationBus.SETTINGS_CACHE, List.of());
+        }
+    }
+
 
     /**
      * {@inheritDoc}
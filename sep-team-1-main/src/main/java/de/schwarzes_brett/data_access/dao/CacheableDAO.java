@@ -1,5 +1,7 @@
 package de.schwarzes_brett.data_access.dao;
 
+import java.sql.SQLException;
+
 /**
  * All DAOs must implement this interface to save their changes to their cache, if they have one.
  *
@@ -10,4 +12,12 @@ public interface CacheableDAO {
      * Commits the changes made by this object to the cache, if this object supports caching. Otherwise, the method will do nothing.
      */
     void commitChangesToCache();
+
+    /**
+     * Publishes the invalidations of the changes made by this object to the caches of the other application nodes. Is called before the
+     * transaction is committed, so the invalidations are only delivered if the commit succeeds.
+     *
+     * @throws SQLException If the invalidations could not be published.
+     */
+    default void publishInvalidations() throws SQLException {}
 }
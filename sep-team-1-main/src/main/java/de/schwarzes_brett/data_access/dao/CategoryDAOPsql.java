@@ -17,11 +17,17 @@ import java.util.logging.Logger;
 
 /**
  * Controls the PostgreSQL database access for a category.
+ * The paths of the categories and the copies of them on the ads are maintained by triggers when categories are inserted, moved or deleted,
+ * so moving a category only rewrites the paths of its own subtree.
  *
  * @author Kilian Lichtenauer
  */
 public class CategoryDAOPsql extends BaseDAOPsql implements CategoryDAO {
 
+    private static final String DELETE_CATEGORY_QUERY = "DELETE FROM schwarzes_brett.category WHERE id = ?;";
+    private static final String SHIFT_AND_DELETE_CATEGORY_QUERY = "UPDATE schwarzes_brett.ad SET category = ? WHERE category = ?;"
+                                                                  + "UPDATE schwarzes_brett.category SET parent_id = ? WHERE parent_id = ?;"
+                                                                  + DELETE_CATEGORY_QUERY;
     private final Logger logger = LoggerProducer.get(CategoryDAOPsql.class);
 
     /**
@@ -119,31 +125,46 @@ public class CategoryDAOPsql extends BaseDAOPsql implements CategoryDAO {
      * {@inheritDoc}
      */
     @Override
+    @SuppressWarnings("checkstyle:MagicNumber")
     public void deleteCategory(CategoryDTO categoryToBeDeleted, CategoryDTO categoryToBeShiftedTo) {
         logger.log(Level.FINE, "Category with id = " + categoryToBeDeleted.getId() + " gets deleted.");
         checkForExistenceOfCategory(categoryToBeDeleted);
+        // Moving the ads and subcategories and deleting the category are sent together, so they take one round trip.
+        String query;
         if (categoryToBeShiftedTo != null) {
-            logger.finest("Moving ads to chosen category: " + categoryToBeShiftedTo.getName());
+            logger.finest("Moving ads and subcategories to chosen category: " + categoryToBeShiftedTo.getName());
             checkForExistenceOfCategory(categoryToBeShiftedTo);
-            moveAdsFromCategory(categoryToBeDeleted, categoryToBeShiftedTo);
-            moveCategories(categoryToBeDeleted, categoryToBeShiftedTo);
+            query = SHIFT_AND_DELETE_CATEGORY_QUERY;
+        } else {
+            query = DELETE_CATEGORY_QUERY;
         }
-
-        PreparedStatement deleteCategoryStatement;
-        try {
-            deleteCategoryStatement = getTransaction().getConnection()
-                                                      .prepareStatement("DELETE FROM schwarzes_brett.category WHERE id = ?");
-            deleteCategoryStatement.setInt(1, categoryToBeDeleted.getId());
+        try (PreparedStatement deleteCategoryStatement = prepare(query)) {
+            if (categoryToBeShiftedTo != null) {
+                deleteCategoryStatement.setInt(1, categoryToBeShiftedTo.getId());
+                deleteCategoryStatement.setInt(2, categoryToBeDeleted.getId());
+                deleteCategoryStatement.setInt(3, categoryToBeShiftedTo.getId());
+                deleteCategoryStatement.setInt(4, categoryToBeDeleted.getId());
+                deleteCategoryStatement.setInt(5, categoryToBeDeleted.getId());
+            } else {
+                deleteCategoryStatement.setInt(1, categoryToBeDeleted.getId());
+            }
+            deleteCategoryStatement.executeUpdate();
         } catch (SQLException e) {
-
-            throw new DataStorageUnavailableException(e.getMessage(), e);
+            logger.log(Level.SEVERE, "SQL-Exception got triggered, while deleting a category in database.");
+            throw new DataStorageAccessException(e.getMessage(), e);
         }
+    }
+
+    /**
+     * Prepares a statement on the connection of the transaction.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private PreparedStatement prepare(String query) {
         try {
-            deleteCategoryStatement.executeUpdate();
-            deleteCategoryStatement.close();
+            return getTransaction().getConnection().prepareStatement(query);
         } catch (SQLException e) {
-            logger.log(Level.SEVERE, "SQL-Exception got triggered, while searching for Categories in database.");
-            throw new DataStorageAccessException(e.getMessage(), e);
+            logger.severe("getConnection not possible.");
+            throw new DataStorageUnavailableException(e.getMessage(), e);
         }
     }
 
@@ -164,49 +185,6 @@ public class CategoryDAOPsql extends BaseDAOPsql implements CategoryDAO {
         }
     }
 
-    private void moveCategories(CategoryDTO categoryToBeDeleted, CategoryDTO categoryToBeShiftedTo) {
-        logger.finest("Moving categories to the parent of the category to be deleted.");
-        PreparedStatement moveChildrenStatement;
-        try {
-            moveChildrenStatement = getTransaction().getConnection()
-                                                    .prepareStatement("UPDATE schwarzes_brett.category SET parent_id = ? "
-                                                                      + "WHERE parent_id = ?");
-            moveChildrenStatement.setInt(1, categoryToBeShiftedTo.getId());
-            moveChildrenStatement.setInt(2, categoryToBeDeleted.getId());
-        } catch (SQLException e) {
-            logger.severe("getConnection not possible.");
-            throw new DataStorageUnavailableException(e.getMessage(), e);
-        }
-        try {
-            moveChildrenStatement.executeUpdate();
-            moveChildrenStatement.close();
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "SQL-Exception got triggered, while searching for Categories in database.");
-            throw new DataStorageAccessException(e.getMessage(), e);
-        }
-    }
-
-    private void moveAdsFromCategory(CategoryDTO categoryToBeDeleted, CategoryDTO categoryToBeShiftedTo) {
-        logger.finest("Moving ads from category with id: " + categoryToBeDeleted.getId() + " to category: " + categoryToBeShiftedTo.getId());
-        PreparedStatement moveAdsStatement;
-        try {
-            moveAdsStatement = getTransaction().getConnection()
-                                               .prepareStatement("UPDATE schwarzes_brett.ad SET category = ? WHERE category = ?");
-            moveAdsStatement.setInt(1, categoryToBeShiftedTo.getId());
-            moveAdsStatement.setInt(2, categoryToBeDeleted.getId());
-        } catch (SQLException e) {
-            logger.severe("getConnection not possible.");
-            throw new DataStorageUnavailableException(e.getMessage(), e);
-        }
-        try {
-            moveAdsStatement.executeUpdate();
-            moveAdsStatement.close();
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "SQL-Exception got triggered, while searching for Categories in database.");
-            throw new DataStorageAccessException(e.getMessage());
-        }
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -1,9 +1,17 @@
 package de.schwarzes_brett.data_access.dao;
 
+import de.schwarzes_brett.dto.PaginationDTO;
+
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * This utility class provides utility functions for database access.
@@ -12,6 +20,15 @@ import java.sql.Types;
  */
 final class DAOPsqlUtil {
 
+    /**
+     * The number of rows up to which a listing is counted exactly. Larger listings are only estimated, as counting them reads every row.
+     */
+    static final long EXACT_COUNT_LIMIT = 10_000;
+
+    private static final Pattern PLAN_ROWS = Pattern.compile(" rows=(\\d+) ");
+    private static final long ESTIMATE_MAX_AGE_MILLIS = 60_000;
+    private static final Map<String, Estimate> ESTIMATES = new ConcurrentHashMap<>();
+
     /**
      * Private constructor, as this class is a utility class.
      */
@@ -113,4 +130,58 @@ final class DAOPsqlUtil {
         return value;
     }
 
+    /**
+     * Returns the number of rows the query planner estimates for a query without executing it. The estimate is based on the statistics of
+     * the tables, which are updated by autovacuum, so it can be off after large changes. It is only planned again once it is older than a
+     * minute, so listings do not plan their estimate on every page.
+     *
+     * @param connection The connection to plan the query with.
+     * @param query      The query without parameters.
+     * @return The estimated number of rows.
+     * @throws SQLException If the query could not be planned.
+     */
+    static long estimateRows(Connection connection, String query) throws SQLException {
+        long now = System.currentTimeMillis();
+        Estimate cached = ESTIMATES.get(query);
+        if (cached != null && now - cached.plannedMillis() < ESTIMATE_MAX_AGE_MILLIS) {
+            return cached.rows();
+        }
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery("EXPLAIN " + query)) {
+            // The first line of the plan is its top node, which returns the rows of the query.
+            Matcher matcher = PLAN_ROWS.matcher(result.next() ? result.getString(1) : "");
+            long rows = matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+            ESTIMATES.put(query, new Estimate(rows, now));
+            return rows;
+        }
+    }
+
+    /**
+     * Forgets the estimates of all queries, so they are planned again on their next use.
+     */
+    static void forgetEstimates() {
+        ESTIMATES.clear();
+    }
+
+    /**
+     * Returns the last page number of a listing with the estimated number of items, up to the highest page number shown for estimates, and
+     * marks the pagination as estimated.
+     *
+     * @param pagination The pagination of the listing.
+     * @param estimate   The estimated number of items.
+     * @return The estimated last page number.
+     */
+    static int estimatedLastPageNumber(PaginationDTO pagination, long estimate) {
+        pagination.setLastPageNumberEstimated(true);
+        long pages = Math.max(1, Math.ceilDiv(estimate, pagination.getItemsPerPage()));
+        return (int) Math.min(pages, PaginationDTO.MAX_ESTIMATED_LAST_PAGE_NUMBER);
+    }
+
+    /**
+     * An estimated number of rows of a query.
+     *
+     * @param rows          The estimated number of rows.
+     * @param plannedMillis The time the query was planned at in milliseconds.
+     */
+    private record Estimate(long rows, long plannedMillis) {}
+
 }
@@ -46,9 +46,8 @@ public class ImageDAOPsql extends BaseDAOPsql implements ImageDAO {
      * @param output The output stream to write to.
      */
     private void writeLOToStream(long id, OutputStream output) throws LOAccessException {
-        PGConnection connection = (PGConnection) getTransaction().getConnection();
         try {
-            LargeObjectManager objManager = connection.getLargeObjectAPI();
+            LargeObjectManager objManager = getTransaction().getConnection().unwrap(PGConnection.class).getLargeObjectAPI();
             try (LargeObject obj = objManager.open(id, LargeObjectManager.READ)) {
                 obj.getInputStream().transferTo(output);
             }
@@ -108,10 +107,8 @@ public class ImageDAOPsql extends BaseDAOPsql implements ImageDAO {
      * @return The id of the large object that was created.
      */
     private long writeStreamToLO(InputStream input) throws LOAccessException {
-        PGConnection connection = (PGConnection) getTransaction().getConnection();
-
         try {
-            LargeObjectManager objManager = connection.getLargeObjectAPI();
+            LargeObjectManager objManager = getTransaction().getConnection().unwrap(PGConnection.class).getLargeObjectAPI();
 
             long oid = objManager.createLO(LargeObjectManager.READ | LargeObjectManager.WRITE);
 
@@ -0,0 +1,39 @@
+package de.schwarzes_brett.data_access.dao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Holds the SQL text of the variants of a query, so the text of each variant is built once. A variant is identified by a key that determines
+ * the whole text, while all values are bound as parameters. The text of a variant therefore stays the same across requests, so the driver
+ * reuses the statement it has prepared on the server for a connection, and the database plans the variant only once per connection.
+ * <p>
+ * The keys consist of whitelisted sort columns and flags, so the number of variants is bounded.
+ *
+ * @param <K> The type of the keys of the variants.
+ */
+final class QueryTemplates<K> {
+
+    private final Map<K, String> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the SQL text of a variant. It is built by the given builder when the variant is requested for the first time.
+     *
+     * @param variant The key of the variant.
+     * @param builder The builder of the SQL text of the variant.
+     * @return The SQL text of the variant.
+     */
+    String get(K variant, Supplier<String> builder) {
+        return templates.computeIfAbsent(variant, key -> builder.get());
+    }
+
+    /**
+     * Returns the number of variants that have been built.
+     *
+     * @return The number of built variants.
+     */
+    int size() {
+        return templates.size();
+    }
+}
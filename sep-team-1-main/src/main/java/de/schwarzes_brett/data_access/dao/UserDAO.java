@@ -76,6 +76,7 @@ public interface UserDAO extends CacheableDAO {
      *
      * @param pagination Tells which users get fetched depending on pagination parameters.
      * @return A list of users included in the pagination.
+     * @throws IllegalArgumentException If the users are not sorted by nickname, last name or email address.
      */
     List<UserDTO> fetchUsers(PaginationDTO pagination);
 
@@ -111,7 +112,8 @@ public interface UserDAO extends CacheableDAO {
     void updateContactInfo(UserDTO user);
 
     /**
-     * Fetches the number of pages for a given {@code PaginationDTO}.
+     * Fetches the number of pages for a given {@code PaginationDTO}. If the listing is not searched and has more items than can be counted
+     * quickly, the number is estimated, capped and marked as estimated in the pagination.
      *
      * @param pagination The {@code PaginationDTO} in which the information of the pagination is saved.
      * @return The number of pages.
@@ -1,5 +1,6 @@
 package de.schwarzes_brett.data_access.dao;
 
+import de.schwarzes_brett.data_access.cache.CacheInvalidationBus;
 import de.schwarzes_brett.data_access.cache.UserDaoCache;
 import de.schwarzes_brett.data_access.exception.DataStorageAccessException;
 import de.schwarzes_brett.data_access.exception.DuplicateEmailAddressException;
@@ -25,6 +26,8 @@ import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -34,6 +37,8 @@ import java.util.logging.Logger;
 public class UserDAOPsql extends BaseDAOPsql implements UserDAO {
 
     private static final UserDaoCache CACHE = UserDaoCache.getInstance();
+    private static final Set<String> SORT_COLUMNS = Set.of("nickname", "last_name", "e_mail");
+    private static final QueryTemplates<String> LISTINGS = new QueryTemplates<>();
     private final Logger logger = LoggerProducer.get(UserDAOPsql.class);
     private final List<UserDTO> usersToBeCached;
     private final List<UserDTO> usersToBeInvalidated;
@@ -56,8 +61,9 @@ public class UserDAOPsql extends BaseDAOPsql implements UserDAO {
      */
     @Override
     public void commitChangesToCache() {
+        long readVersion = getTransaction().getCacheVersion();
         for (UserDTO user : usersToBeCached) {
-            CACHE.storeUser(user);
+            CACHE.storeUser(user, readVersion);
         }
         usersToBeCached.clear();
         for (UserDTO user : usersToBeInvalidated) {
@@ -66,6 +72,17 @@ public class UserDAOPsql extends BaseDAOPsql implements UserDAO {
         usersToBeInvalidated.clear();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publishInvalidations() throws SQLException {
+        List<Integer> ids = usersToBeInvalidated.stream().map(UserDTO::getId).filter(Objects::nonNull).toList();
+        if (!ids.isEmpty()) {
+            CacheInvalidationBus.getInstance().publish(getTransaction().getConnection(), CacheInvalidationBus.USER_CACHE, ids);
+        }
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -402,15 +419,19 @@ public class UserDAOPsql extends BaseDAOPsql implements UserDAO {
         PreparedStatement fetchUserStatement;
         String searchTerm = pagination.getSearch().getSearchTerm();
         List<UserDTO> users = new ArrayList<>();
+        if (!SORT_COLUMNS.contains(pagination.getSortBy())) {
+            throw new IllegalArgumentException("Users cannot be sorted by " + pagination.getSortBy() + ".");
+        }
+        String order = pagination.getSortBy() + (pagination.isSortAscending() ? " ASC" : " DESC");
         try {
-            fetchUserStatement = getTransaction().getConnection().prepareStatement(
+            fetchUserStatement = getTransaction().getConnection().prepareStatement(LISTINGS.get(order, () ->
                     "SELECT * FROM schwarzes_brett.user u LEFT OUTER JOIN schwarzes_brett.contact_data contact ON u.contact_data = contact.id"
                     + " WHERE (lower(nickname)) LIKE ('%' || ? || '%') OR ? IS NULL "
-                    + "ORDER BY " + pagination.getSortBy() + (pagination.isSortAscending() ? " ASC " : " DESC ")
-                    + "LIMIT " + pagination.getItemsPerPage() + " OFFSET " + (pagination.getItemsPerPage() * (pagination.getPageNumber() - 1))
-                    + ";");
+                    + "ORDER BY " + order + " LIMIT ? OFFSET ?;"));
             fetchUserStatement.setString(1, searchTerm == null ? null : searchTerm.toLowerCase());
             fetchUserStatement.setString(2, pagination.getSearch().getSearchTerm());
+            fetchUserStatement.setInt(3, pagination.getItemsPerPage());
+            fetchUserStatement.setInt(4, pagination.getItemsPerPage() * (pagination.getPageNumber() - 1));
 
             ResultSet set = fetchUserStatement.executeQuery();
             UserDTO userDTO;
@@ -617,6 +638,13 @@ public class UserDAOPsql extends BaseDAOPsql implements UserDAO {
         PreparedStatement fetchLastPageNumberStatement;
         String searchTerm = pagination.getSearch().getSearchTerm();
         try {
+            if (searchTerm == null || searchTerm.isEmpty()) {
+                long estimate = DAOPsqlUtil.estimateRows(getTransaction().getConnection(), "SELECT 1 FROM schwarzes_brett.user;");
+                if (estimate > DAOPsqlUtil.EXACT_COUNT_LIMIT) {
+                    return DAOPsqlUtil.estimatedLastPageNumber(pagination, estimate);
+                }
+            }
+            pagination.setLastPageNumberEstimated(false);
             fetchLastPageNumberStatement = getTransaction().getConnection().prepareStatement(
                     "SELECT count(*) as total FROM schwarzes_brett.user LEFT OUTER JOIN schwarzes_brett.contact_data contact ON contact_data"
                     + " = contact.id WHERE (lower(nickname)) LIKE ('%' || ? || '%') OR ? IS NULL");
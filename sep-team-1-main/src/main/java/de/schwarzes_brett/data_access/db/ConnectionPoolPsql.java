@@ -3,19 +3,46 @@ package de.schwarzes_brett.data_access.db;
 import de.schwarzes_brett.data_access.config.Config;
 import de.schwarzes_brett.data_access.exception.DataStorageUnavailableException;
 import de.schwarzes_brett.logging.LoggerProducer;
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.TransactionState;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Manages connections to the PostgresSql database. Connections are given to transactions and used by DAOs to access database.
+ * <p>
+ * Borrowing and releasing does not use a pool-wide lock. Every idle connection is backed by exactly one permit of a fair semaphore, so a
+ * waiting borrower is woken up as soon as a connection is released and waiting borrowers are served in their order of arrival.
+ * <p>
+ * Releasing a connection is a plain hand-back. A connection is only validated with a round trip to the database when it is borrowed after
+ * having been idle for longer than the configured validation idle time, or by the periodic {@link #checkConnections()}.
+ * <p>
+ * The pool opens its minimum number of connections in parallel on startup and grows on demand up to its maximum size. Connections that were
+ * idle for longer than the idle timeout are closed again by {@link #shrinkIdleConnections()} until the minimum size is reached.
+ * <p>
+ * Every pooled connection keeps the prepared statements of its users open for the next transactions, up to {@code DB_STATEMENT_CACHE_SIZE}
+ * idle statements, see {@link StatementCachingConnection}.
+ * <p>
+ * Besides the pool for the primary database, there is an optional pool for a streaming replica, which is only enabled if
+ * {@code DB_REPLICA_HOST} is configured. Both pools use the same sizing settings.
  *
  * @author Jonas Elsper
  */
@@ -23,40 +50,122 @@ public final class ConnectionPoolPsql {
 
     private static final String DB_DRIVER = "org.postgresql.Driver";
     private static final long TIMEOUT_MILLIS = 3000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final String DEFAULT_VALIDATION_IDLE_TIME = "30000";
+    private static final int MAX_WARM_UP_THREADS = 8;
+    private static final String DEFAULT_STATEMENT_CACHE_SIZE = "64";
+    private static final String DEFAULT_PREPARE_THRESHOLD = "5";
     private static ConnectionPoolPsql instance;
+    private static ConnectionPoolPsql replicaInstance;
     private final Logger logger = LoggerProducer.get(ConnectionPoolPsql.class);
-    private final Queue<Connection> connections = new LinkedList<>();
-    private final List<Connection> borrowedConnections = new LinkedList<>();
+    private final Queue<IdleConnection> connections = new ConcurrentLinkedQueue<>();
+    private final Set<Connection> borrowedConnections = ConcurrentHashMap.newKeySet();
+    private final Set<Connection> readCommittedConnections = ConcurrentHashMap.newKeySet();
+    private final Semaphore availableConnections = new Semaphore(0, true);
+    private final AtomicInteger poolSize = new AtomicInteger();
+    private final boolean isReplica;
+    private volatile boolean enabled;
+    private String url;
     private Properties connectionProps;
+    private long validationIdleMillis;
+    private int minConnections;
+    private int maxConnections;
+    private long idleTimeoutMillis;
+    private int statementCacheSize;
 
 
-    private ConnectionPoolPsql() {}
+    private ConnectionPoolPsql(boolean isReplica) {
+        this.isReplica = isReplica;
+    }
 
     /**
-     * Getter for the connection pool instance.
+     * Getter for the connection pool instance of the primary database.
      *
      * @return The connection pool instance.
      */
     public static synchronized ConnectionPoolPsql getInstance() {
         if (instance == null) {
-            instance = new ConnectionPoolPsql();
+            instance = new ConnectionPoolPsql(false);
         }
         return instance;
     }
 
     /**
-     * Initializes the connection pool and all connections.
+     * Getter for the connection pool instance of the read replica. The pool is only usable if {@link #isEnabled()} returns {@code true}.
+     *
+     * @return The connection pool instance of the read replica.
+     */
+    public static synchronized ConnectionPoolPsql getReplicaInstance() {
+        if (replicaInstance == null) {
+            replicaInstance = new ConnectionPoolPsql(true);
+        }
+        return replicaInstance;
+    }
+
+    /**
+     * Initializes the connection pool and all connections. The replica pool stays disabled if no replica is configured.
      */
     public synchronized void init() {
         Config config = Config.getInstance();
+        String host = isReplica ? config.get("DB_REPLICA_HOST", null) : config.get("DB_HOST");
+        if (host == null) {
+            logger.fine("No read replica configured, all transactions use the primary database.");
+            return;
+        }
+        String port = isReplica ? config.get("DB_REPLICA_PORT", config.get("DB_PORT")) : config.get("DB_PORT");
+        url = "jdbc:postgresql://" + host + ":" + port + "/" + config.get("DB_NAME");
         createConnProps(config);
         loadDriver();
-        int maxConnections = Integer.parseInt(config.get("DB_CONNECTION_COUNT"));
-        for (int i = 0; i < maxConnections; i++) {
-            logger.log(Level.FINEST, "Start creating Connection " + (i + 1) + ".");
-            connections.offer(createConnection());
-            logger.log(Level.FINEST, "Created Connection " + (i + 1) + " successfully.");
+        validationIdleMillis = Long.parseLong(config.get("DB_VALIDATION_IDLE_TIME", DEFAULT_VALIDATION_IDLE_TIME));
+        minConnections = Integer.parseInt(config.get("DB_POOL_MIN"));
+        maxConnections = Integer.parseInt(config.get("DB_POOL_MAX"));
+        idleTimeoutMillis = Long.parseLong(config.get("DB_POOL_IDLE_TIMEOUT"));
+        statementCacheSize = Integer.parseInt(config.get("DB_STATEMENT_CACHE_SIZE", DEFAULT_STATEMENT_CACHE_SIZE));
+        if (minConnections < 0 || maxConnections < 1 || minConnections > maxConnections) {
+            String message = "The connection pool size must satisfy 0 <= DB_POOL_MIN <= DB_POOL_MAX and 1 <= DB_POOL_MAX.";
+            logger.severe(message);
+            throw new IllegalArgumentException(message);
+        }
+        warmUp();
+        enabled = true;
+    }
+
+    /**
+     * Checks whether this pool is initialized and connected to its database.
+     *
+     * @return {@code true} if connections can be borrowed from this pool.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the minimum number of connections in parallel, so the startup time does not grow with the latency to the database.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private void warmUp() {
+        if (minConnections == 0) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(minConnections, MAX_WARM_UP_THREADS));
+        List<CompletableFuture<Connection>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < minConnections; i++) {
+                futures.add(CompletableFuture.supplyAsync(this::createConnection, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            futures.stream().filter(future -> !future.isCompletedExceptionally()).forEach(future -> closeQuietly(future.join()));
+            throw e.getCause() instanceof DataStorageUnavailableException cause ? cause : e;
+        } finally {
+            executor.shutdown();
         }
+        for (CompletableFuture<Connection> future : futures) {
+            connections.offer(new IdleConnection(future.join(), System.currentTimeMillis()));
+            poolSize.incrementAndGet();
+            availableConnections.release();
+        }
+        logger.log(Level.FINEST, "Created " + minConnections + " Connections successfully.");
     }
 
     private void createConnProps(Config config) {
@@ -65,6 +174,9 @@ public final class ConnectionPoolPsql {
         connectionProps.setProperty("password", config.get("DB_PASSWORD"));
         connectionProps.setProperty("ssl", config.get("DB_USE_SSL"));
         connectionProps.setProperty("sslfactory", config.get("DB_SSL_FACTORY"));
+        connectionProps.setProperty("prepareThreshold", config.get("DB_PREPARE_THRESHOLD", DEFAULT_PREPARE_THRESHOLD));
+        // Lets the driver send a batch of inserts as multi-row inserts instead of one insert per row.
+        connectionProps.setProperty("reWriteBatchedInserts", "true");
     }
 
     private void loadDriver() {
@@ -77,26 +189,42 @@ public final class ConnectionPoolPsql {
     }
 
     private Connection createConnection() {
-        Config config = Config.getInstance();
         Connection conn;
         try {
-            conn = DriverManager.getConnection(
-                    "jdbc:postgresql://" + config.get("DB_HOST") + ":" + config.get("DB_PORT") + "/" + config.get("DB_NAME"), connectionProps);
+            conn = DriverManager.getConnection(url, connectionProps);
             conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
             conn.setAutoCommit(false);
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Could not create a new connection.", e);
             throw new DataStorageUnavailableException(e);
         }
-        return conn;
+        return statementCacheSize > 0 ? StatementCachingConnection.wrap(conn, statementCacheSize) : conn;
+    }
+
+    /**
+     * Creates a connection to the database of this pool that is not managed by the pool. The connection is in auto-commit mode and must be
+     * closed by the caller.
+     *
+     * @return The new connection.
+     */
+    public Connection createDedicatedConnection() {
+        try {
+            return DriverManager.getConnection(url, connectionProps);
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not create a dedicated connection.", e);
+            throw new DataStorageUnavailableException(e);
+        }
     }
 
     /**
      * Destroys all connections in and from the connection pool.
      */
     public synchronized void destroy() {
-        for (Connection conn : connections) {
+        enabled = false;
+        availableConnections.drainPermits();
+        for (IdleConnection idle : connections) {
             logger.log(Level.FINEST, "Try to close connection.");
+            Connection conn = idle.connection();
             if (conn != null) {
                 try {
                     conn.close();
@@ -122,48 +250,151 @@ public final class ConnectionPoolPsql {
         }
         connections.clear();
         borrowedConnections.clear();
+        readCommittedConnections.clear();
+        poolSize.set(0);
     }
 
     /**
-     * Returns an active connection from the connection pool.
+     * Returns an active connection for reading and writing with repeatable read isolation from the connection pool.
      *
      * @return An active connection to the database.
      */
-    public synchronized Connection getConnection() {
-        long startMillis = System.currentTimeMillis();
-        long stopMillis = startMillis + TIMEOUT_MILLIS;
-        while (connections.isEmpty() && System.currentTimeMillis() < stopMillis) {
-            try {
-                wait(stopMillis - System.currentTimeMillis());
-            } catch (InterruptedException e) {
-                logger.log(Level.WARNING, "Thread was interrupted while waiting for connection.");
+    public Connection getConnection() {
+        return getConnection(false);
+    }
+
+    /**
+     * Returns an active connection from the connection pool. Opens a new connection if no connection is idle and the pool has not reached its
+     * maximum size yet, otherwise waits until a connection is released.
+     * <p>
+     * Read-only connections use read committed isolation, all others repeatable read. The isolation level of a connection is only changed
+     * with a round trip to the database if it was last borrowed for the other mode.
+     *
+     * @param readOnly Whether the connection is only used for reading.
+     * @return An active connection to the database.
+     */
+    public Connection getConnection(boolean readOnly) {
+        Connection conn = borrow();
+        try {
+            conn.setReadOnly(readOnly);
+            if (readOnly && !readCommittedConnections.contains(conn)) {
+                conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                readCommittedConnections.add(conn);
+            } else if (!readOnly && readCommittedConnections.contains(conn)) {
+                conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+                readCommittedConnections.remove(conn);
             }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Could not set the access mode of a connection.", e);
+            releaseConnection(conn);
+            throw new DataStorageUnavailableException(e);
         }
-        if (!connections.isEmpty()) {
-            Connection conn = connections.poll();
-            borrowedConnections.add(conn);
-            return conn;
-        } else {
+        return conn;
+    }
+
+    private Connection borrow() {
+        boolean acquired;
+        try {
+            // A timed tryAcquire respects the fairness of the semaphore, unlike the untimed one.
+            acquired = availableConnections.tryAcquire(0, TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                Connection grown = tryGrow();
+                if (grown != null) {
+                    return grown;
+                }
+                acquired = availableConnections.tryAcquire(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.log(Level.WARNING, "Thread was interrupted while waiting for connection.");
+            throw new DataStorageUnavailableException("Interrupted while waiting for a connection from the Pool", e);
+        }
+        if (!acquired) {
             logger.log(Level.SEVERE, "No Connection available in the Pool");
             throw new DataStorageUnavailableException("No Connection available in the Pool");
         }
+        // Every permit is backed by an idle connection, as connections are always offered before their permit is released.
+        IdleConnection idle = connections.poll();
+        Connection conn;
+        try {
+            conn = prepareForBorrow(idle);
+        } catch (DataStorageUnavailableException e) {
+            // Keep the pool size constant, the stale connection gets validated again by the next borrower.
+            connections.offer(new IdleConnection(idle.connection(), 0));
+            availableConnections.release();
+            throw e;
+        }
+        borrowedConnections.add(conn);
+        return conn;
+    }
+
+    /**
+     * Opens an additional connection if the pool has not reached its maximum size.
+     *
+     * @return The new borrowed connection, or {@code null} if the pool is already at its maximum size.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private Connection tryGrow() {
+        int size;
+        do {
+            size = poolSize.get();
+            if (size >= maxConnections) {
+                return null;
+            }
+        } while (!poolSize.compareAndSet(size, size + 1));
+        Connection conn;
+        try {
+            conn = createConnection();
+        } catch (DataStorageUnavailableException e) {
+            poolSize.decrementAndGet();
+            throw e;
+        }
+        logger.finer("Connection Pool grew to " + (size + 1) + " connections.");
+        borrowedConnections.add(conn);
+        return conn;
+    }
+
+    /**
+     * Detects broken connections lazily when they are borrowed. A closed connection is detected without a round trip, the validation query is
+     * only sent if the connection was idle for longer than the validation idle time.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private Connection prepareForBorrow(IdleConnection idle) {
+        Connection conn = idle.connection();
+        boolean isClosed;
+        try {
+            isClosed = conn.isClosed();
+        } catch (SQLException e) {
+            isClosed = true;
+        }
+        if (isClosed) {
+            logger.fine("Borrowed connection was closed and gets replaced.");
+            readCommittedConnections.remove(conn);
+            return createConnection();
+        } else if (System.currentTimeMillis() - idle.idleSince() > validationIdleMillis) {
+            return checkConnection(conn);
+        } else {
+            return conn;
+        }
     }
 
     /**
      * Releases an active connection to the connection pool.
-     * The Connection gets validated and rolled back before it gets released.
+     * The connection is only rolled back if it still has an open transaction, it gets validated the next time it is borrowed.
      *
      * @param conn The connection to be released.
      */
-    public synchronized void releaseConnection(Connection conn) {
-        logger.finest("Start trying to release Connection to Connection Pool." + " available conns: " + connections.size());
+    public void releaseConnection(Connection conn) {
+        logger.finest("Start trying to release Connection to Connection Pool." + " available conns: " + availableConnections.availablePermits());
         if (borrowedConnections.remove(conn)) {
-            connections.offer(checkConnection(conn));
-            logger.finest("Release Connection to Connection Pool successful." + " available conns: " + connections.size());
+            rollbackOpenTransaction(conn);
+            connections.offer(new IdleConnection(conn, System.currentTimeMillis()));
+            availableConnections.release();
+            logger.finest("Release Connection to Connection Pool successful." + " available conns: " + availableConnections.availablePermits());
         } else {
             try {
                 conn.close();
-                logger.finest("Release Connection to Connection Pool successful." + " available conns: " + connections.size());
+                logger.finest("Release Connection to Connection Pool successful." + " available conns: " + availableConnections.availablePermits());
             } catch (SQLException e) {
                 logger.log(Level.WARNING, "Failed to close released Connection. Connection was closed because Connection Pool is full", e);
             }
@@ -172,12 +403,70 @@ public final class ConnectionPoolPsql {
 
     /**
      * Validates all available Connections from the Connection Pool and replace them, if they are invalid.
+     * Connections that are borrowed in the meantime are skipped, as they are validated when they are borrowed after being idle.
      */
-    public synchronized void checkConnections() {
-        for (int i = 0; i < connections.size(); i++) {
-            Connection conn = connections.poll();
-            conn = checkConnection(conn);
-            connections.offer(conn);
+    public void checkConnections() {
+        int idleCount = availableConnections.availablePermits();
+        for (int i = 0; i < idleCount && availableConnections.tryAcquire(); i++) {
+            IdleConnection idle = connections.poll();
+            Connection conn;
+            try {
+                conn = checkConnection(idle.connection());
+            } catch (DataStorageUnavailableException e) {
+                // The invalid connection is dropped, so the pool is able to grow again once the database is reachable.
+                poolSize.decrementAndGet();
+                throw e;
+            }
+            connections.offer(new IdleConnection(conn, System.currentTimeMillis()));
+            availableConnections.release();
+        }
+    }
+
+    /**
+     * Returns the number of connections currently opened by the connection pool, both idle and borrowed ones.
+     *
+     * @return The current size of the connection pool.
+     */
+    public int getSize() {
+        return poolSize.get();
+    }
+
+    /**
+     * Closes connections that have been idle for longer than the idle timeout, as long as the pool is larger than its minimum size.
+     *
+     * @return The number of closed connections.
+     */
+    public int shrinkIdleConnections() {
+        int closedCount = 0;
+        int idleCount = availableConnections.availablePermits();
+        for (int i = 0; i < idleCount && availableConnections.tryAcquire(); i++) {
+            IdleConnection idle = connections.poll();
+            int size = poolSize.get();
+            if (System.currentTimeMillis() - idle.idleSince() > idleTimeoutMillis && size > minConnections
+                && poolSize.compareAndSet(size, size - 1)) {
+                closeQuietly(idle.connection());
+                closedCount++;
+            } else {
+                connections.offer(idle);
+                availableConnections.release();
+            }
+        }
+        return closedCount;
+    }
+
+    /**
+     * Rolls back the given connection if it still has an open transaction. Transactions always end their transaction before releasing their
+     * connection, so the transaction state is read from the driver without a round trip to the database.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private void rollbackOpenTransaction(Connection conn) {
+        try {
+            if (!conn.isWrapperFor(BaseConnection.class) || conn.unwrap(BaseConnection.class).getTransactionState() != TransactionState.IDLE) {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            // The connection is probably broken, this is detected when it is borrowed again.
+            logger.log(Level.WARNING, "Connection could not be rolled back", e);
         }
     }
 
@@ -187,21 +476,25 @@ public final class ConnectionPoolPsql {
         } else {
             boolean isValid = false;
             try {
-                isValid = conn.isValid(2);
+                isValid = conn.isValid(VALIDATION_TIMEOUT_SECONDS);
             } catch (SQLException e) {
                 logger.log(Level.WARNING, "Connection could not be validated.", e);
             }
             if (!isValid) {
+                logger.fine("Invalid connection gets replaced.");
+                closeQuietly(conn);
                 conn = createConnection();
-            } else {
-                try {
-                    conn.rollback();
-                } catch (SQLException e) {
-                    logger.log(Level.WARNING, "Connection could not be rolled back", e);
-                    conn = createConnection();
-                }
             }
         }
         return conn;
     }
+
+    private void closeQuietly(Connection conn) {
+        readCommittedConnections.remove(conn);
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Failed to close Connection.", e);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package de.schwarzes_brett.data_access.db;
+
+import java.sql.Connection;
+
+/**
+ * Used to store an idle connection of the connection pool together with the time it was handed back to the pool.
+ *
+ * @param connection The idle connection.
+ * @param idleSince  Time in milliseconds at which the connection was handed back to the pool.
+ */
+record IdleConnection(Connection connection, long idleSince) {}
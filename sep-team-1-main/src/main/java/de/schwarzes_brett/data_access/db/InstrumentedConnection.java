@@ -0,0 +1,145 @@
+package de.schwarzes_brett.data_access.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps a connection, so the statements created by it record their execution times and row counts in the {@link StatementStatistics}. Every
+ * other call is passed to the wrapped connection unchanged, including {@code unwrap} for driver specific APIs.
+ */
+final class InstrumentedConnection implements InvocationHandler {
+
+    private final Connection connection;
+    private final StatementStatistics statistics;
+
+    private InstrumentedConnection(Connection connection, StatementStatistics statistics) {
+        this.connection = connection;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Creates an instrumented view of the given connection.
+     *
+     * @param connection The connection to be wrapped.
+     * @param statistics The statistics in which the statements are recorded.
+     * @return The instrumented connection.
+     */
+    static Connection wrap(Connection connection, StatementStatistics statistics) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                                   new InstrumentedConnection(connection, statistics));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object result = invokeTarget(connection, method, args);
+        if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+            return Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                                          new InstrumentedStatement(statement, (String) args[0], statistics));
+        } else if (result instanceof Statement statement && method.getName().equals("createStatement")) {
+            return Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(), new Class<?>[]{Statement.class},
+                                          new InstrumentedStatement(statement, null, statistics));
+        }
+        return result;
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Records the executions of a statement. The SQL text of a prepared statement is known when it is created, the one of a plain statement
+     * when it is executed.
+     */
+    private static final class InstrumentedStatement implements InvocationHandler {
+
+        private final Statement statement;
+        private final String sql;
+        private final StatementStatistics statistics;
+        private final List<Object> parameters = new ArrayList<>();
+        private StatementStatistics.Entry entry;
+
+        private InstrumentedStatement(Statement statement, String sql, StatementStatistics statistics) {
+            this.statement = statement;
+            this.sql = sql;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                String executedSql = sql != null ? sql : args != null && args.length > 0 ? (String) args[0] : null;
+                if (executedSql == null) {
+                    return invokeTarget(statement, method, args);
+                }
+                if (sql == null || entry == null) {
+                    entry = statistics.entryFor(executedSql);
+                }
+                long start = System.nanoTime();
+                Object result = invokeTarget(statement, method, args);
+                statistics.record(entry, executedSql, parameters, System.nanoTime() - start, countRows(result));
+                return result instanceof ResultSet resultSet ? countingResultSet(resultSet) : result;
+            } else if (name.equals("getResultSet")) {
+                Object result = invokeTarget(statement, method, args);
+                return result instanceof ResultSet resultSet && entry != null ? countingResultSet(resultSet) : result;
+            } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index && index > 0) {
+                setParameter(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            }
+            return invokeTarget(statement, method, args);
+        }
+
+        private void setParameter(int index, Object value) {
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, value);
+        }
+
+        private ResultSet countingResultSet(ResultSet resultSet) {
+            StatementStatistics.Entry resultEntry = entry;
+            return (ResultSet) Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                                                      (proxy, method, args) -> {
+                                                          Object result = invokeTarget(resultSet, method, args);
+                                                          if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                                                              resultEntry.addRow();
+                                                          }
+                                                          return result;
+                                                      });
+        }
+
+        private static long countRows(Object result) {
+            long rows = 0;
+            if (result instanceof Integer count) {
+                rows = Math.max(count, 0);
+            } else if (result instanceof Long count) {
+                rows = Math.max(count, 0);
+            } else if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package de.schwarzes_brett.data_access.db;
+
+import de.schwarzes_brett.logging.LoggerProducer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Wraps a pooled connection, so its prepared statements are kept open and handed out again for the same SQL text. The connection outlives
+ * the transactions and DAOs that use it, so a statement that is prepared in every request is only created once per connection, and the
+ * driver prepares it on the server once it has been executed often enough.
+ * <p>
+ * Closing a statement hands it back: its result set is closed and its parameters and batch are cleared. A statement that is in use is not
+ * handed out twice, another one is prepared for the same SQL text instead. Only the statements prepared from the SQL text alone are cached.
+ * If more statements are idle than the cache can hold, the least recently used one is closed. Closing the connection closes all idle
+ * statements.
+ * <p>
+ * The driver's own cache ({@code preparedStatementCacheQueries}) keeps the parsed query, its execution count for {@code prepareThreshold}
+ * and its server-side statement after a statement is closed. It does not keep the statement, so every DAO call would still create a new
+ * statement object and look its query up. This cache hands out the open statement instead.
+ */
+final class StatementCachingConnection implements InvocationHandler {
+
+    private static final float LOAD_FACTOR = 0.75f;
+    private final Logger logger = LoggerProducer.get(StatementCachingConnection.class);
+    private final Connection connection;
+    private final Map<String, PreparedStatement> idleStatements;
+
+    private StatementCachingConnection(Connection connection, int capacity) {
+        this.connection = connection;
+        idleStatements = new LinkedHashMap<>(capacity, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Creates a view of the given connection that caches its prepared statements.
+     *
+     * @param connection The connection to be wrapped.
+     * @param capacity   The maximum number of idle statements kept open.
+     * @return The caching connection.
+     */
+    static Connection wrap(Connection connection, int capacity) {
+        return (Connection) Proxy.newProxyInstance(StatementCachingConnection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                                   new StatementCachingConnection(connection, capacity));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "prepareStatement":
+                if (args.length == 1) {
+                    return checkOut((String) args[0]);
+                }
+                break;
+            case "close":
+                closeIdleStatements();
+                break;
+            // The pool keeps its connections in sets, so they must be identified by the proxy and not by the wrapped connection.
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                break;
+        }
+        return invokeTarget(connection, method, args);
+    }
+
+    /**
+     * Hands out the idle statement for the SQL text, or prepares a new one if there is none.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private PreparedStatement checkOut(String sql) throws SQLException {
+        PreparedStatement statement;
+        synchronized (idleStatements) {
+            statement = idleStatements.remove(sql);
+        }
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(StatementCachingConnection.class.getClassLoader(),
+                                                          new Class<?>[]{PreparedStatement.class}, new CachedStatement(sql, statement));
+    }
+
+    /**
+     * Resets a statement that was closed by its user and keeps it for the next user of the SQL text. The statement is closed instead if it
+     * cannot be reset or another statement for the SQL text was handed back in the meantime.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private void checkIn(String sql, PreparedStatement statement) {
+        try {
+            if (statement.isClosed()) {
+                return;
+            }
+            ResultSet result = statement.getResultSet();
+            if (result != null) {
+                result.close();
+            }
+            statement.clearParameters();
+            statement.clearBatch();
+        } catch (SQLException e) {
+            closeQuietly(statement);
+            return;
+        }
+        synchronized (idleStatements) {
+            if (idleStatements.putIfAbsent(sql, statement) == null) {
+                return;
+            }
+        }
+        closeQuietly(statement);
+    }
+
+    private void closeIdleStatements() {
+        synchronized (idleStatements) {
+            idleStatements.values().forEach(this::closeQuietly);
+            idleStatements.clear();
+        }
+    }
+
+    private void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "A cached statement could not be closed.", e);
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A cached statement as seen by one user. Closing it hands the statement back, after which it cannot be used by this user anymore.
+     */
+    private final class CachedStatement implements InvocationHandler {
+
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean closed;
+
+        private CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        checkIn(sql, statement);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (closed) {
+                        throw new SQLException("The statement has been closed.");
+                    }
+                    return invokeTarget(statement, method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package de.schwarzes_brett.data_access.db;
+
+import java.util.List;
+
+/**
+ * A snapshot of the statistics of all executions of one normalized SQL statement.
+ *
+ * @param sql        The SQL text with literals replaced by {@code ?} and collapsed whitespace.
+ * @param executions The number of executions.
+ * @param totalNanos The summed up execution time in nanoseconds.
+ * @param maxNanos   The longest execution time in nanoseconds.
+ * @param rows       The number of rows that were read or changed.
+ * @param histogram  The number of executions per latency bucket, the buckets are bounded by {@link #BUCKET_BOUNDS_MICROS}.
+ */
+public record StatementStatistic(String sql, long executions, long totalNanos, long maxNanos, long rows, List<Long> histogram) {
+
+    /**
+     * The upper bounds of the latency buckets of the histogram in microseconds. The last bucket counts all executions above the last bound.
+     */
+    @SuppressWarnings("checkstyle:MagicNumber")
+    public static final List<Long> BUCKET_BOUNDS_MICROS = List.of(100L, 250L, 500L, 1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L,
+                                                                  100_000L, 250_000L, 500_000L, 1_000_000L, 2_500_000L);
+
+    /**
+     * Calculates the mean execution time.
+     *
+     * @return The mean execution time in nanoseconds.
+     */
+    public long meanNanos() {
+        return executions == 0 ? 0 : totalNanos / executions;
+    }
+}
@@ -0,0 +1,180 @@
+package de.schwarzes_brett.data_access.db;
+
+import de.schwarzes_brett.data_access.config.Config;
+import de.schwarzes_brett.logging.LoggerProducer;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Collects the execution times and row counts of all SQL statements per normalized SQL text and logs slow statements. The statements are
+ * recorded by the connections returned by {@link #instrument(Connection)}.
+ * <p>
+ * Recording only uses lock-free counters, so the statistics can stay enabled in production.
+ */
+public final class StatementStatistics {
+
+    private static final String DEFAULT_SLOW_STATEMENT_TIME = "1000";
+    private static final String DEFAULT_ENABLED = "true";
+    private static final int MAX_NORMALIZED_CACHE_SIZE = 2000;
+    private static final int MAX_LOGGED_PARAMETER_LENGTH = 100;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final StatementStatistics INSTANCE = new StatementStatistics();
+    private final Logger logger = LoggerProducer.get(StatementStatistics.class);
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> normalizedSql = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+    private volatile long slowStatementNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(DEFAULT_SLOW_STATEMENT_TIME));
+
+    private StatementStatistics() {}
+
+    /**
+     * Getter for the statistics instance.
+     *
+     * @return The statistics instance.
+     */
+    public static StatementStatistics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Reads the settings of the statistics from the configuration.
+     */
+    public void init() {
+        Config config = Config.getInstance();
+        enabled = Boolean.parseBoolean(config.get("DB_STATEMENT_STATISTICS", DEFAULT_ENABLED));
+        slowStatementNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(config.get("DB_SLOW_STATEMENT_TIME", DEFAULT_SLOW_STATEMENT_TIME)));
+    }
+
+    /**
+     * Wraps the given connection, so all statements executed with it are recorded. The connection is returned unchanged if the statistics are
+     * disabled.
+     *
+     * @param connection The connection to be instrumented.
+     * @return The instrumented connection.
+     */
+    public Connection instrument(Connection connection) {
+        return enabled ? InstrumentedConnection.wrap(connection, this) : connection;
+    }
+
+    /**
+     * Returns the statistics of all recorded statements, ordered by their total execution time.
+     *
+     * @return Snapshots of the statistics per normalized SQL text.
+     */
+    public List<StatementStatistic> getStatistics() {
+        List<StatementStatistic> statistics = new ArrayList<>();
+        entries.forEach((sql, entry) -> statistics.add(entry.snapshot(sql)));
+        statistics.sort(Comparator.comparingLong(StatementStatistic::totalNanos).reversed());
+        return statistics;
+    }
+
+    /**
+     * Removes all recorded statistics.
+     */
+    public void reset() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the entry of the given SQL text, in which its executions are recorded.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    Entry entryFor(String sql) {
+        return entries.computeIfAbsent(normalize(sql), key -> new Entry());
+    }
+
+    /**
+     * Records an execution of a statement and logs it if it was slow. The parameters may contain personal data and secrets, so only their
+     * number is logged with the normalized SQL text, and their values are only logged at a fine level.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    void record(Entry entry, String sql, List<Object> parameters, long nanos, long rows) {
+        entry.record(nanos, rows);
+        if (nanos > slowStatementNanos) {
+            logger.warning("Slow statement took " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms: " + normalize(sql) + " with "
+                           + parameters.size() + " parameters");
+            if (logger.isLoggable(Level.FINE)) {
+                logger.fine("Parameters of the slow statement: " + formatParameters(parameters));
+            }
+        }
+    }
+
+    private String normalize(String sql) {
+        String normalized = normalizedSql.get(sql);
+        if (normalized == null) {
+            normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+            normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+            normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+            // Statements with inlined values would grow the cache without bound.
+            if (normalizedSql.size() < MAX_NORMALIZED_CACHE_SIZE) {
+                normalizedSql.put(sql, normalized);
+            }
+        }
+        return normalized;
+    }
+
+    private static String formatParameters(List<Object> parameters) {
+        List<String> formatted = new ArrayList<>(parameters.size());
+        for (Object parameter : parameters) {
+            String value = String.valueOf(parameter);
+            formatted.add(value.length() > MAX_LOGGED_PARAMETER_LENGTH ? value.substring(0, MAX_LOGGED_PARAMETER_LENGTH) + "..." : value);
+        }
+        return formatted.toString();
+    }
+
+    /**
+     * The counters of one normalized SQL text.
+     */
+    static final class Entry {
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[StatementStatistic.BUCKET_BOUNDS_MICROS.size() + 1];
+
+        private Entry() {
+            Arrays.setAll(histogram, i -> new LongAdder());
+        }
+
+        private void record(long nanos, long rowCount) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            rows.add(rowCount);
+            long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            int bucket = 0;
+            while (bucket < StatementStatistic.BUCKET_BOUNDS_MICROS.size() && micros > StatementStatistic.BUCKET_BOUNDS_MICROS.get(bucket)) {
+                bucket++;
+            }
+            histogram[bucket].increment();
+        }
+
+        /**
+         * Counts rows that were read from a result set after the statement was executed.
+         */
+        @SuppressWarnings({"checkstyle:JavadocMethod"})
+        void addRow() {
+            rows.increment();
+        }
+
+        private StatementStatistic snapshot(String sql) {
+            return new StatementStatistic(sql, executions.sum(), totalNanos.sum(), maxNanos.get(), rows.sum(),
+                                          Arrays.stream(histogram).map(LongAdder::sum).toList());
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package de.schwarzes_brett.data_access.lifecycle;
 
+import de.schwarzes_brett.data_access.cache.CacheInvalidationBus;
 import de.schwarzes_brett.data_access.config.Config;
 import de.schwarzes_brett.data_access.dao.DefaultImageDAOImpl;
 import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+import de.schwarzes_brett.data_access.db.StatementStatistics;
+import de.schwarzes_brett.data_access.transaction.ReadYourWrites;
 import de.schwarzes_brett.logging.LoggerProducer;
 
 import java.io.InputStream;
@@ -31,8 +34,14 @@ public final class DataAccessStartStop {
     public static void init(Function<String, InputStream> resourceFetcher) {
         LOGGER.finest("Starting the startup process of the data access.");
         Config.getInstance().init(resourceFetcher);
+        StatementStatistics.getInstance().init();
         ConnectionPoolPsql.getInstance().init();
+        ConnectionPoolPsql.getReplicaInstance().init();
+        ReadYourWrites.init();
+        CacheInvalidationBus.getInstance().init();
         DBScheme.init(resourceFetcher);
+        SchemaMigration.init(resourceFetcher);
+        PostcodeImport.init(resourceFetcher);
         DefaultImageDAOImpl.getInstance().init(resourceFetcher);
         LOGGER.finest("Data access startup complete.");
     }
@@ -42,6 +51,8 @@ public final class DataAccessStartStop {
      */
     public static void destroy() {
         LOGGER.finest("Starting the shutdown process of the data access.");
+        CacheInvalidationBus.getInstance().destroy();
+        ConnectionPoolPsql.getReplicaInstance().destroy();
         ConnectionPoolPsql.getInstance().destroy();
         LOGGER.finest("Data access shutdown complete.");
     }
@@ -0,0 +1,145 @@
+package de.schwarzes_brett.data_access.lifecycle;
+
+import de.schwarzes_brett.data_access.config.Config;
+import de.schwarzes_brett.data_access.exception.DataStorageAccessException;
+import de.schwarzes_brett.data_access.transaction.TransactionFactory;
+import de.schwarzes_brett.data_access.transaction.TransactionPsql;
+import de.schwarzes_brett.logging.LoggerProducer;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Fills the reference table with the coordinates of postcodes, which the radius search of ads is based on. The table is filled from the
+ * bundled file if it is empty, or from the file configured with {@code DB_POSTCODE_FILE} on every startup. Both are read in the tab separated
+ * GeoNames postal code format. Afterwards, the coordinates of the existing contact data are updated.
+ */
+public final class PostcodeImport {
+
+    private static final Logger LOGGER = LoggerProducer.get(PostcodeImport.class);
+    private static final String BUNDLED_PATH = "WEB-INF/classes/de/schwarzes_brett/data_access/lifecycle/geo/postcodes.txt";
+    private static final String COMMENT = "#";
+    private static final int POSTCODE_COLUMN = 1;
+    private static final int PLACE_COLUMN = 2;
+    private static final int LATITUDE_COLUMN = 9;
+    private static final int LONGITUDE_COLUMN = 10;
+    private static final int BATCH_SIZE = 1000;
+
+    private PostcodeImport() {}
+
+    /**
+     * Imports the postcodes from the configured file, or from the bundled file if none is configured and the table is empty.
+     *
+     * @param resourceFetcher The callback to retrieve a resource file.
+     */
+    public static void init(Function<String, InputStream> resourceFetcher) {
+        String file = Config.getInstance().get("DB_POSTCODE_FILE", "");
+        try (TransactionPsql transaction = (TransactionPsql) TransactionFactory.produce()) {
+            Connection connection = transaction.getConnection();
+            if (!file.isBlank()) {
+                try (InputStream input = Files.newInputStream(Path.of(file))) {
+                    importPostcodes(connection, input, file);
+                }
+            } else if (isEmpty(connection)) {
+                try (InputStream input = resourceFetcher.apply(BUNDLED_PATH)) {
+                    if (input == null) {
+                        throw new FileNotFoundException("Could not find the file " + BUNDLED_PATH + ".");
+                    }
+                    importPostcodes(connection, input, BUNDLED_PATH);
+                }
+            }
+            transaction.commit();
+        } catch (IOException | SQLException | DataStorageAccessException e) {
+            String errorText = "The postcodes could not be imported.";
+            LOGGER.severe(errorText);
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            throw new RuntimeException(errorText, e);
+        }
+    }
+
+    /**
+     * Inserts or updates the postcodes of a file and updates the coordinates of the contact data with these postcodes.
+     *
+     * @param connection The connection of the importing transaction.
+     * @param input      The content of the file.
+     * @param name       The name of the file for the log.
+     * @throws IOException  If the file could not be read.
+     * @throws SQLException If the postcodes could not be stored.
+     */
+    static void importPostcodes(Connection connection, InputStream input, String name) throws IOException, SQLException {
+        int imported = 0;
+        int skipped = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO schwarzes_brett.postcode_location (postcode, place, latitude, longitude) VALUES (?, ?, ?, ?) "
+                     + "ON CONFLICT (postcode, place) DO UPDATE SET latitude = excluded.latitude, longitude = excluded.longitude;")) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith(COMMENT)) {
+                    continue;
+                }
+                String[] columns = line.split("\t", -1);
+                try {
+                    statement.setString(1, columns[POSTCODE_COLUMN].strip());
+                    statement.setString(2, columns[PLACE_COLUMN].strip());
+                    statement.setDouble(3, Double.parseDouble(columns[LATITUDE_COLUMN]));
+                    statement.setDouble(4, Double.parseDouble(columns[LONGITUDE_COLUMN]));
+                } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                    skipped++;
+                    continue;
+                }
+                statement.addBatch();
+                if (++imported % BATCH_SIZE == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        if (skipped > 0) {
+            LOGGER.warning("Skipped " + skipped + " malformed lines of the postcode file " + name + ".");
+        }
+        LOGGER.info("Imported " + imported + " postcodes from " + name + ", located " + locateContactData(connection) + " contact data.");
+    }
+
+    /**
+     * Stores the coordinates of the postcodes with the contact data whose coordinates are missing or have changed.
+     *
+     * @return The number of updated contact data.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static int locateContactData(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(
+                    "UPDATE schwarzes_brett.contact_data c SET latitude = p.latitude, longitude = p.longitude "
+                    + "FROM (SELECT postcode, AVG(latitude) AS latitude, AVG(longitude) AS longitude "
+                    + "FROM schwarzes_brett.postcode_location GROUP BY postcode) p "
+                    + "WHERE p.postcode = TRIM(c.postcode) "
+                    + "AND (c.latitude IS DISTINCT FROM p.latitude OR c.longitude IS DISTINCT FROM p.longitude);");
+        }
+    }
+
+    /**
+     * Checks if no postcodes have been imported yet.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static boolean isEmpty(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT NOT EXISTS (SELECT 1 FROM schwarzes_brett.postcode_location);")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+}
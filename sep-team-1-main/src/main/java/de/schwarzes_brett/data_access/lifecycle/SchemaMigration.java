@@ -0,0 +1,254 @@
+package de.schwarzes_brett.data_access.lifecycle;
+
+import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+import de.schwarzes_brett.data_access.exception.DataStorageUnavailableException;
+import de.schwarzes_brett.logging.LoggerProducer;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Upgrades an existing database schema with the migration scripts it has not applied yet. The applied versions are stored in the table
+ * {@code schema_migration}, and the scripts are applied in the order of their versions after the schema has been created.
+ * <p>
+ * A script runs in one transaction together with recording its version, unless its first line is {@code -- no-transaction}. Such a script
+ * is split into its statements, which are executed one by one in auto-commit mode, so it can create indexes concurrently without locking
+ * the tables against writes. Its statements must therefore be safe to repeat if it fails halfway. Concurrent index builds that failed leave
+ * invalid indexes behind, which are dropped before the script that declares them runs again.
+ * <p>
+ * A released script must never be changed, a new version has to be added instead.
+ */
+public final class SchemaMigration {
+
+    private static final Logger LOGGER = LoggerProducer.get(SchemaMigration.class);
+    private static final String BASE_PATH = "WEB-INF/classes/de/schwarzes_brett/data_access/lifecycle/sql/migrations/";
+    private static final List<String> MIGRATIONS = List.of("V1__lookup_indexes.sql", "V2__ad_listing.sql", "V3__follow_feed.sql",
+                                                           "V4__sort_indexes.sql", "V5__full_text_search.sql",
+                                                           "V6__location_trigram_indexes.sql", "V7__postcode_locations.sql",
+                                                           "V8__coordinate_index.sql", "V9__category_paths.sql",
+                                                           "V10__category_path_indexes.sql");
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final Pattern STATEMENT_END = Pattern.compile(";\\s*$", Pattern.MULTILINE);
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+    private static final Pattern CONCURRENT_INDEX = Pattern.compile(
+            "CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+CONCURRENTLY\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?\"?(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final String NO_TRANSACTION = "-- no-transaction";
+    // Serializes the migrations of several application nodes that start at the same time.
+    private static final long LOCK_KEY = 0x5363_6865_6D61L;
+    private static final long LOCK_RETRY_MILLIS = 1_000;
+
+    private SchemaMigration() {}
+
+    /**
+     * Applies the migrations that are missing in the database.
+     *
+     * @param resourceFetcher The callback to retrieve a resource file.
+     */
+    public static void init(Function<String, InputStream> resourceFetcher) {
+        try (Connection connection = ConnectionPoolPsql.getInstance().createDedicatedConnection()) {
+            lock(connection);
+            execute(connection, "CREATE TABLE IF NOT EXISTS schwarzes_brett.schema_migration (version INT PRIMARY KEY, "
+                                + "description VARCHAR(255) NOT NULL, applied_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT NOW());");
+            Set<Integer> applied = appliedVersions(connection);
+            int previous = 0;
+            for (String migration : MIGRATIONS) {
+                Matcher fileName = FILE_NAME.matcher(migration);
+                if (!fileName.matches() || Integer.parseInt(fileName.group(1)) <= previous) {
+                    throw new IllegalStateException("The migration " + migration + " is not named by a version after " + previous + ".");
+                }
+                previous = Integer.parseInt(fileName.group(1));
+                if (!applied.contains(previous)) {
+                    apply(connection, previous, fileName.group(2), load(resourceFetcher, BASE_PATH + migration));
+                }
+            }
+            // The lock is released with the connection.
+        } catch (IOException | SQLException | DataStorageUnavailableException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            String errorText = "DB schema could not be migrated.";
+            LOGGER.severe(errorText);
+            LOGGER.log(Level.SEVERE, e.getMessage(), e);
+            throw new RuntimeException(errorText, e);
+        }
+        LOGGER.finest("DB schema migration complete");
+    }
+
+    /**
+     * Waits until this node holds the migration lock. The lock is only tried and the node sleeps between the attempts, so a waiting node
+     * holds no snapshot that a concurrent index build of the migrating node would have to wait for.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static void lock(Connection connection) throws SQLException, InterruptedException {
+        boolean waiting = false;
+        while (!tryLock(connection)) {
+            if (!waiting) {
+                LOGGER.info("Waiting for another node to migrate the DB schema.");
+                waiting = true;
+            }
+            Thread.sleep(LOCK_RETRY_MILLIS);
+        }
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ");")) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    /**
+     * Splits a script into its statements at the semicolons that end a line. Parts that only consist of comments are left out.
+     *
+     * @param script The script to split.
+     * @return The statements of the script.
+     */
+    static List<String> statements(String script) {
+        List<String> statements = new ArrayList<>();
+        for (String statement : STATEMENT_END.split(script)) {
+            if (!COMMENTS.matcher(statement).replaceAll("").isBlank()) {
+                statements.add(statement.strip());
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * Applies a migration and records its version.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static void apply(Connection connection, int version, String description, String script) throws SQLException {
+        LOGGER.info("Applying the schema migration " + version + " " + description + ".");
+        if (script.startsWith(NO_TRANSACTION)) {
+            List<String> statements = statements(script);
+            dropInvalidIndexes(connection, concurrentIndexes(statements));
+            for (String statement : statements) {
+                execute(connection, statement);
+            }
+            record(connection, version, description);
+        } else {
+            connection.setAutoCommit(false);
+            try {
+                execute(connection, script);
+                record(connection, version, description);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        LOGGER.info("Applied the schema migration " + version + ".");
+    }
+
+    /**
+     * Returns the names of the indexes that the given statements build concurrently.
+     *
+     * @param statements The statements of a script.
+     * @return The names of the concurrently built indexes.
+     */
+    static Set<String> concurrentIndexes(List<String> statements) {
+        Set<String> indexes = new HashSet<>();
+        for (String statement : statements) {
+            Matcher index = CONCURRENT_INDEX.matcher(statement);
+            if (index.find()) {
+                indexes.add(index.group(1));
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Drops the given indexes if a failed concurrent build has left them behind invalid, so the build can be repeated. Other invalid
+     * indexes are kept, as they may still be built concurrently by another session.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static void dropInvalidIndexes(Connection connection, Set<String> indexes) throws SQLException {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        List<String> invalid = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid JOIN pg_namespace n ON n.oid = c.relnamespace "
+                + "WHERE n.nspname = 'schwarzes_brett' AND NOT i.indisvalid AND c.relname = ANY(?);")) {
+            statement.setArray(1, connection.createArrayOf("text", indexes.toArray()));
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    invalid.add(result.getString(1));
+                }
+            }
+        }
+        for (String index : invalid) {
+            LOGGER.warning("Dropping the invalid index " + index + ".");
+            execute(connection, "DROP INDEX CONCURRENTLY IF EXISTS schwarzes_brett.\"" + index + "\";");
+        }
+    }
+
+    /**
+     * Returns the versions of the migrations that have already been applied.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static Set<Integer> appliedVersions(Connection connection) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT version FROM schwarzes_brett.schema_migration;")) {
+            while (result.next()) {
+                versions.add(result.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Records that a migration has been applied.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static void record(Connection connection, int version, String description) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO schwarzes_brett.schema_migration (version, description) VALUES (?, ?);")) {
+            statement.setInt(1, version);
+            statement.setString(2, description);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Executes a statement without a result.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Reads a migration script.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private static String load(Function<String, InputStream> resourceFetcher, String path) throws IOException {
+        try (InputStream input = resourceFetcher.apply(path)) {
+            if (input == null) {
+                throw new FileNotFoundException("Could not find the file " + path + ".");
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import de.schwarzes_brett.data_access.cache.UserDaoCache;
 import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
 import de.schwarzes_brett.logging.LoggerProducer;
 
+import java.util.List;
 import java.util.logging.Logger;
 
 /**
@@ -29,10 +30,15 @@ public final class DataAccessMaintainer {
     public static void maintain() {
         LOGGER.fine("Performing data access maintenance.");
 
-        ConnectionPoolPsql.getInstance().checkConnections();
+        for (ConnectionPoolPsql connectionPool : List.of(ConnectionPoolPsql.getInstance(), ConnectionPoolPsql.getReplicaInstance())) {
+            int closedConnectionCount = connectionPool.shrinkIdleConnections();
+            LOGGER.finer("Closed " + closedConnectionCount + " idle connections of the connection pool.");
+            connectionPool.checkConnections();
+        }
 
         int userCacheClearCount = UserDaoCache.getInstance().clearOldValues();
         LOGGER.finer("Cleaned " + userCacheClearCount + " entries from the user cache.");
+        LOGGER.fine("User cache usage: " + UserDaoCache.getInstance().getStatistics() + ".");
 
         int applicationSettingsClearCount = ApplicationSettingsDaoCache.getInstance().clearOldValues();
         LOGGER.finer("Cleaned " + applicationSettingsClearCount + " entries from the application settings cache.");
@@ -0,0 +1,81 @@
+package de.schwarzes_brett.data_access.transaction;
+
+import de.schwarzes_brett.data_access.config.Config;
+import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+
+/**
+ * Decides whether read-only transactions may read from the replica. A session that committed a write keeps reading from the primary database
+ * for the configured time, so it sees its own changes even if the replica lags behind.
+ * <p>
+ * The time of the last write is bound to the current thread for the duration of a request by {@link #begin(Long)} and {@link #end()}. Threads
+ * that are not bound always read from the replica if it is enabled.
+ */
+public final class ReadYourWrites {
+
+    private static final String DEFAULT_WINDOW = "5000";
+    private static final ThreadLocal<long[]> LAST_WRITE = new ThreadLocal<>();
+    private static long windowMillis = Long.parseLong(DEFAULT_WINDOW);
+
+    private ReadYourWrites() {}
+
+    /**
+     * Reads the time after a write during which the session keeps reading from the primary database from the configuration.
+     */
+    public static void init() {
+        windowMillis = Long.parseLong(Config.getInstance().get("DB_REPLICA_READ_YOUR_WRITES_TIME", DEFAULT_WINDOW));
+    }
+
+    /**
+     * Binds the time of the last write of the current session to the current thread.
+     *
+     * @param lastWriteMillis Time of the last write of the session in milliseconds or {@code null} if the session did not write yet.
+     */
+    public static void begin(Long lastWriteMillis) {
+        LAST_WRITE.set(new long[]{lastWriteMillis == null ? 0 : lastWriteMillis});
+    }
+
+    /**
+     * Unbinds the time of the last write from the current thread.
+     *
+     * @return Time of the last write of the session in milliseconds, including the writes of this request, or {@code null} if the session did
+     *         not write yet.
+     */
+    public static Long end() {
+        long[] lastWrite = LAST_WRITE.get();
+        LAST_WRITE.remove();
+        return lastWrite == null || lastWrite[0] == 0 ? null : lastWrite[0];
+    }
+
+    /**
+     * Checks whether writes of read-write transactions have to be recorded, which is only the case if there is a replica to be avoided.
+     *
+     * @return {@code true} if the current thread is bound and the replica is enabled.
+     */
+    static boolean isTracking() {
+        return LAST_WRITE.get() != null && ConnectionPoolPsql.getReplicaInstance().isEnabled();
+    }
+
+    /**
+     * Records that the current session committed a write.
+     */
+    static void recordWrite() {
+        long[] lastWrite = LAST_WRITE.get();
+        if (lastWrite != null) {
+            lastWrite[0] = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Selects the connection pool for a read-only transaction.
+     *
+     * @return The replica pool if it is enabled and the session did not write recently, otherwise the primary pool.
+     */
+    static ConnectionPoolPsql readPool() {
+        ConnectionPoolPsql replica = ConnectionPoolPsql.getReplicaInstance();
+        long[] lastWrite = LAST_WRITE.get();
+        if (replica.isEnabled() && (lastWrite == null || System.currentTimeMillis() - lastWrite[0] > windowMillis)) {
+            return replica;
+        }
+        return ConnectionPoolPsql.getInstance();
+    }
+}
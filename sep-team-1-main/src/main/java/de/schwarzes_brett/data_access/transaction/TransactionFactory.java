@@ -27,4 +27,39 @@ public final class TransactionFactory {
         return transaction;
     }
 
+    /**
+     * Factory method for creating a read-only {@code TransactionPsql} instance. Should be used for reads that do not need a stable snapshot
+     * over multiple statements. The transaction uses read committed isolation and does not publish fetched values to caches.
+     *
+     * @return The produced instance.
+     */
+    public static Transaction produceReadOnly() {
+        TransactionPsql transaction = new TransactionPsql(true);
+        LOGGER.finest("Read-only TransactionPsql was created.");
+        return transaction;
+    }
+
+    /**
+     * Factory method for creating a read-only {@code TransactionPsql} instance that is shared by multiple consecutive users. Each user ends
+     * its use with {@code commit()} or {@code abort()} as usual, which keeps the connection of the transaction. The connection is only
+     * released by {@link #releaseShared(Transaction)}.
+     *
+     * @return The produced instance.
+     */
+    public static Transaction produceSharedReadOnly() {
+        TransactionPsql transaction = new TransactionPsql(true, true);
+        LOGGER.finest("Shared read-only TransactionPsql was created.");
+        return transaction;
+    }
+
+    /**
+     * Releases the connection of a transaction created by {@link #produceSharedReadOnly()}.
+     *
+     * @param transaction The shared transaction to be released.
+     */
+    public static void releaseShared(Transaction transaction) {
+        ((TransactionPsql) transaction).releaseShared();
+        LOGGER.finest("Shared TransactionPsql was released.");
+    }
+
 }
@@ -1,11 +1,15 @@
 package de.schwarzes_brett.data_access.transaction;
 
+import de.schwarzes_brett.data_access.cache.DAOCache;
 import de.schwarzes_brett.data_access.dao.CacheableDAO;
 import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+import de.schwarzes_brett.data_access.db.StatementStatistics;
 import de.schwarzes_brett.data_access.exception.DataStorageAccessException;
 import de.schwarzes_brett.logging.LoggerProducer;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -19,38 +23,52 @@ import java.util.logging.Logger;
  */
 public class TransactionPsql implements Transaction {
 
+    /**
+     * The shared transaction that holds a connection on the current thread, if any.
+     */
+    private static final ThreadLocal<TransactionPsql> HELD_SHARED = new ThreadLocal<>();
+
     private final Logger logger = LoggerProducer.get(TransactionPsql.class);
     private final List<CacheableDAO> daoList = new ArrayList<>();
+    private final boolean readOnly;
+    private final boolean shared;
+    private ConnectionPoolPsql pool;
     private Connection connection;
+    private Connection instrumentedConnection;
+    private long cacheVersion;
     private boolean isTerminated;
     private boolean isInitiated;
+    private boolean isIdle;
 
     /**
      * Default constructor.
      */
     public TransactionPsql() {
-        isInitiated = false;
-        isTerminated = false;
+        this(false);
     }
 
-    private static synchronized void commitSynchronised(TransactionPsql t, List<CacheableDAO> daoList) {
-        if (t.checkInitiatedAndNotTerminated()) {
-            t.logger.finest("Starting commit of transaction...");
-            try {
-                t.connection.commit();
-                t.logger.fine("Transaction was committed.");
-                for (CacheableDAO cDao : daoList) {
-                    cDao.commitChangesToCache();
-                }
-            } catch (SQLException e) {
-                t.logger.log(Level.WARNING, "transaction could not be committed");
-                throw new DataStorageAccessException("Error while committing transaction.", e);
-            } finally {
-                ConnectionPoolPsql.getInstance().releaseConnection(t.connection);
-                t.logger.fine("connection released to pool");
-            }
-            t.terminate();
-        }
+    /**
+     * Creates a transaction that is either read-only or used for reading and writing.
+     *
+     * @param readOnly Whether the transaction only reads. Read-only transactions use read committed isolation, do not publish to caches and
+     *                 are routed to the read replica if one is configured.
+     */
+    public TransactionPsql(boolean readOnly) {
+        this(readOnly, false);
+    }
+
+    /**
+     * Creates a transaction that may be shared by multiple users. Committing or aborting a shared transaction only ends the current database
+     * transaction and keeps the connection, which is released by {@link #releaseShared()}.
+     *
+     * @param readOnly Whether the transaction only reads.
+     * @param shared   Whether the transaction is shared.
+     */
+    TransactionPsql(boolean readOnly, boolean shared) {
+        this.readOnly = readOnly;
+        this.shared = shared;
+        isInitiated = false;
+        isTerminated = false;
     }
 
     /**
@@ -63,24 +81,84 @@ public class TransactionPsql implements Transaction {
     }
 
     /**
-     * Getter for the current connection to the database.
+     * Getter for the current connection to the database. The statements executed with it are recorded in the {@link StatementStatistics}.
+     * <p>
+     * If a shared transaction of the current thread holds an idle connection of the same pool, it is handed back before another one is
+     * borrowed, so a thread never waits for a second connection of a pool while it keeps one unused.
      *
      * @return The current connection to the database.
      */
     public Connection getConnection() {
         if (connection == null) {
-            connection = ConnectionPoolPsql.getInstance().getConnection();
+            // Read before the first statement, so values of this transaction are only cached if they were not invalidated since.
+            cacheVersion = DAOCache.currentVersion();
+            pool = readOnly ? ReadYourWrites.readPool() : ConnectionPoolPsql.getInstance();
+            TransactionPsql held = HELD_SHARED.get();
+            if (held != null && held != this && held.isIdle && held.pool == pool) {
+                held.releaseSharedConnection();
+            }
+            connection = pool.getConnection(readOnly);
+            instrumentedConnection = StatementStatistics.getInstance().instrument(connection);
             isInitiated = true;
+            if (shared) {
+                HELD_SHARED.set(this);
+            }
         }
-        return connection;
+        isIdle = false;
+        return instrumentedConnection;
+    }
+
+    /**
+     * Getter for the cache version that was current when this transaction fetched its connection.
+     *
+     * @return The cache version read before the first statement of this transaction.
+     */
+    public long getCacheVersion() {
+        return cacheVersion;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * The changes of the registered DAOs are published to their caches after the commit, unless this transaction is read-only. No lock is
+     * needed for this, as the caches only store values that were not invalidated after this transaction started. Their invalidations are
+     * published to the other application nodes within this transaction, so they are delivered with the commit.
      */
     @Override
     public void commit() {
-        commitSynchronised(this, daoList);
+        if (!checkInitiatedAndNotTerminated()) {
+            return;
+        }
+        if (shared) {
+            endSharedUse(true);
+        } else {
+            logger.finest("Starting commit of transaction...");
+            try {
+                if (!readOnly) {
+                    for (CacheableDAO cDao : daoList) {
+                        cDao.publishInvalidations();
+                    }
+                }
+                boolean recordWrite = !readOnly && ReadYourWrites.isTracking() && hasWritten();
+                connection.commit();
+                logger.fine("Transaction was committed.");
+                if (recordWrite) {
+                    ReadYourWrites.recordWrite();
+                }
+                if (!readOnly) {
+                    for (CacheableDAO cDao : daoList) {
+                        cDao.commitChangesToCache();
+                    }
+                }
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "transaction could not be committed");
+                throw new DataStorageAccessException("Error while committing transaction.", e);
+            } finally {
+                pool.releaseConnection(connection);
+                logger.fine("connection released to pool");
+            }
+            terminate();
+        }
     }
 
     /**
@@ -88,7 +166,12 @@ public class TransactionPsql implements Transaction {
      */
     @Override
     public void abort() {
-        if (checkInitiatedAndNotTerminated()) {
+        if (!checkInitiatedAndNotTerminated()) {
+            return;
+        }
+        if (shared) {
+            endSharedUse(false);
+        } else {
             logger.warning("Starting rollback of transaction.");
             try {
                 connection.rollback();
@@ -98,13 +181,80 @@ public class TransactionPsql implements Transaction {
                 // Database is probably not available since otherwise there would be no SqlException
                 // -> no need to throw exception since connection is checked during releaseConnection
             } finally {
-                ConnectionPoolPsql.getInstance().releaseConnection(connection);
+                pool.releaseConnection(connection);
                 logger.fine("connection released to pool");
             }
             terminate();
         }
     }
 
+    /**
+     * Ends the current database transaction of a shared transaction. The connection is kept for the next use, unless it is broken or the
+     * session has to read from another database now. A kept connection is idle until the next use and is handed back to the pool if another
+     * transaction of the thread needs a connection of the same pool meanwhile.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private void endSharedUse(boolean commit) {
+        try {
+            if (commit) {
+                connection.commit();
+            } else {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Shared transaction could not be ended.", e);
+            releaseSharedConnection();
+            if (commit) {
+                throw new DataStorageAccessException("Error while committing transaction.", e);
+            }
+            return;
+        }
+        if (readOnly && pool != ReadYourWrites.readPool()) {
+            releaseSharedConnection();
+        } else {
+            isIdle = true;
+        }
+    }
+
+    /**
+     * Releases the connection of a shared transaction and terminates it. Must be called by the owner of a shared transaction once it is not
+     * used anymore.
+     */
+    void releaseShared() {
+        if (isInitiated && !isTerminated) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "Shared transaction could not be rolled back.", e);
+            }
+            releaseSharedConnection();
+        }
+        terminate();
+    }
+
+    private void releaseSharedConnection() {
+        if (HELD_SHARED.get() == this) {
+            HELD_SHARED.remove();
+        }
+        pool.releaseConnection(connection);
+        logger.fine("connection released to pool");
+        connection = null;
+        instrumentedConnection = null;
+        isInitiated = false;
+        isIdle = false;
+    }
+
+    /**
+     * Checks whether this transaction wrote to the database, which is the case if a transaction id was assigned to it.
+     */
+    @SuppressWarnings({"checkstyle:JavadocMethod"})
+    private boolean hasWritten() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT txid_current_if_assigned() IS NOT NULL;");
+             ResultSet result = statement.executeQuery()) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
     /**
      * checks if transaction was already terminated and logs if it was already terminated before the call.
      *
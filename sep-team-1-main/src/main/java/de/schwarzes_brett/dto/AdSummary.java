@@ -0,0 +1,289 @@
+package de.schwarzes_brett.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+/**
+ * Contains the data of an ad that a listing shows. It is read from one row of the listing read model, so it holds the price, the
+ * thumbnail, the city and the category only as plain values instead of their own DTOs.
+ */
+public class AdSummary implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id of the ad.
+     */
+    private Integer id;
+
+    /**
+     * The title of the ad.
+     */
+    private String title;
+
+    /**
+     * The price of the ad.
+     */
+    private BigDecimal value;
+
+    /**
+     * The currency of the price.
+     */
+    private Currency currency;
+
+    /**
+     * Whether the ad has a price.
+     */
+    private boolean hasPrice;
+
+    /**
+     * Whether the price is the basis of negotiation.
+     */
+    private boolean basisOfNegotiation;
+
+    /**
+     * The release time of the ad.
+     */
+    private ZonedDateTime release;
+
+    /**
+     * The id of the thumbnail, or null if the ad has none.
+     */
+    private Long thumbnailId;
+
+    /**
+     * The city of the contact data of the ad.
+     */
+    private String city;
+
+    /**
+     * The name of the category of the ad.
+     */
+    private String categoryName;
+
+    /**
+     * The average rating of the creator, or null if the creator has not been rated.
+     */
+    private BigDecimal creatorRating;
+
+    /**
+     * Default constructor.
+     */
+    public AdSummary() {
+    }
+
+    /**
+     * Getter for the id of the ad.
+     *
+     * @return The id of the ad.
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Setter for the id of the ad.
+     *
+     * @param id The id to be set.
+     */
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    /**
+     * Getter for the title of the ad.
+     *
+     * @return The title of the ad.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Setter for the title of the ad.
+     *
+     * @param title The title to be set.
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Getter for the price of the ad.
+     *
+     * @return The price of the ad.
+     */
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    /**
+     * Setter for the price of the ad.
+     *
+     * @param value The price to be set.
+     */
+    public void setValue(BigDecimal value) {
+        this.value = value;
+    }
+
+    /**
+     * Getter for the currency of the price.
+     *
+     * @return The currency of the price.
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Setter for the currency of the price.
+     *
+     * @param currency The currency to be set.
+     */
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Get if a price is available.
+     *
+     * @return True if a price is available.
+     */
+    public boolean isHasPrice() {
+        return hasPrice;
+    }
+
+    /**
+     * Set if a price is available.
+     *
+     * @param hasPrice True if a price is available.
+     */
+    public void setHasPrice(boolean hasPrice) {
+        this.hasPrice = hasPrice;
+    }
+
+    /**
+     * Returns if the price is on basis of negotiation.
+     *
+     * @return True if the price is basis of negotiation.
+     */
+    public boolean isBasisOfNegotiation() {
+        return basisOfNegotiation;
+    }
+
+    /**
+     * Set if the price is basis of negotiation.
+     *
+     * @param basisOfNegotiation True if the price is basis of negotiation.
+     */
+    public void setBasisOfNegotiation(boolean basisOfNegotiation) {
+        this.basisOfNegotiation = basisOfNegotiation;
+    }
+
+    /**
+     * Returns the price as {@code PriceDTO}, so it can be formatted like the price of a whole ad.
+     *
+     * @return The price of the ad.
+     */
+    public PriceDTO getPrice() {
+        PriceDTO price = new PriceDTO();
+        price.setValue(value);
+        price.setCurrency(currency);
+        price.setHasPrice(hasPrice);
+        price.setBasisOfNegotiation(basisOfNegotiation);
+        return price;
+    }
+
+    /**
+     * Getter for the release date of the ad.
+     *
+     * @return The release date of the ad.
+     */
+    public ZonedDateTime getRelease() {
+        return release;
+    }
+
+    /**
+     * Setter for the release date of the ad.
+     *
+     * @param release The release date to be set.
+     */
+    public void setRelease(ZonedDateTime release) {
+        this.release = release;
+    }
+
+    /**
+     * Getter for the id of the thumbnail.
+     *
+     * @return The id of the thumbnail, or null if the ad has none.
+     */
+    public Long getThumbnailId() {
+        return thumbnailId;
+    }
+
+    /**
+     * Setter for the id of the thumbnail.
+     *
+     * @param thumbnailId The id to be set.
+     */
+    public void setThumbnailId(Long thumbnailId) {
+        this.thumbnailId = thumbnailId;
+    }
+
+    /**
+     * Getter for the city of the ad.
+     *
+     * @return The city of the ad.
+     */
+    public String getCity() {
+        return city;
+    }
+
+    /**
+     * Setter for the city of the ad.
+     *
+     * @param city The city to be set.
+     */
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    /**
+     * Getter for the name of the category of the ad.
+     *
+     * @return The name of the category.
+     */
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    /**
+     * Setter for the name of the category of the ad.
+     *
+     * @param categoryName The name to be set.
+     */
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    /**
+     * Getter for the average rating of the creator.
+     *
+     * @return The rating of the creator, or null if the creator has not been rated.
+     */
+    public BigDecimal getCreatorRating() {
+        return creatorRating;
+    }
+
+    /**
+     * Setter for the average rating of the creator.
+     *
+     * @param creatorRating The rating to be set.
+     */
+    public void setCreatorRating(BigDecimal creatorRating) {
+        this.creatorRating = creatorRating;
+    }
+}
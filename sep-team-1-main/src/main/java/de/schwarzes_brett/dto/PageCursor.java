@@ -0,0 +1,17 @@
+package de.schwarzes_brett.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * The position in a sorted listing after which the next page starts. It holds the sort key and the id of the last item of a page, so the
+ * next page can be fetched without skipping the items before it.
+ *
+ * @param sortKey The value of the sort column of the last item, as text.
+ * @param id      The id of the last item, which breaks ties between equal sort keys.
+ */
+public record PageCursor(String sortKey, int id) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -2,6 +2,8 @@ package de.schwarzes_brett.dto;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Contains the data for pagination.
@@ -10,6 +12,22 @@ import java.io.Serializable;
  */
 public class PaginationDTO implements Serializable {
 
+    /**
+     * The sort criterion that orders ads by how well they match the search term.
+     */
+    public static final String SORT_BY_RELEVANCE = "relevance";
+
+    /**
+     * The sort criterion that orders ads by their distance from the location of a radius search.
+     */
+    public static final String SORT_BY_DISTANCE = "distance";
+
+    /**
+     * The highest last page number of a listing whose ads are only estimated. Pages further back are expensive to skip to and the estimate
+     * is too rough to name them.
+     */
+    public static final int MAX_ESTIMATED_LAST_PAGE_NUMBER = 100;
+
     @Serial
     private static final long serialVersionUID = 1L;
 
@@ -23,6 +41,11 @@ public class PaginationDTO implements Serializable {
      */
     private int lastPageNumber;
 
+    /**
+     * Whether the last page number is based on an estimated number of items.
+     */
+    private boolean lastPageNumberEstimated;
+
     /**
      * The itemsPerPage of the pagination.
      */
@@ -53,6 +76,21 @@ public class PaginationDTO implements Serializable {
      */
     private CategoryDTO category = new CategoryDTO();
 
+    /**
+     * The position after which the page starts, or null if the page is selected by its number.
+     */
+    private PageCursor cursor;
+
+    /**
+     * The position after which the following page starts, or null if there is no following page.
+     */
+    private PageCursor nextCursor;
+
+    /**
+     * The positions after which the pages before the current one start, oldest first, for the pages that were reached by turning pages.
+     */
+    private List<PageCursor> previousCursors = new ArrayList<>();
+
     /**
      * Default constructor.
      */
@@ -95,6 +133,24 @@ public class PaginationDTO implements Serializable {
         this.lastPageNumber = lastPageNumber;
     }
 
+    /**
+     * Returns whether the last page number is based on an estimated number of items.
+     *
+     * @return True if the last page number is estimated.
+     */
+    public boolean isLastPageNumberEstimated() {
+        return lastPageNumberEstimated;
+    }
+
+    /**
+     * Sets whether the last page number is based on an estimated number of items.
+     *
+     * @param lastPageNumberEstimated True if the last page number is estimated.
+     */
+    public void setLastPageNumberEstimated(boolean lastPageNumberEstimated) {
+        this.lastPageNumberEstimated = lastPageNumberEstimated;
+    }
+
     /**
      * Getter for the amount of items per page of the pagination.
      *
@@ -202,4 +258,59 @@ public class PaginationDTO implements Serializable {
     public void setCategory(CategoryDTO category) {
         this.category = category;
     }
+
+    /**
+     * Returns the position after which the page starts. If it is set, the page number is ignored and the page is fetched by seeking to the
+     * position, which costs the same for every page.
+     *
+     * @return The position after which the page starts, or null if the page is selected by its number.
+     */
+    public PageCursor getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Sets the position after which the page starts.
+     *
+     * @param cursor The position after which the page starts, or null to select the page by its number.
+     */
+    public void setCursor(PageCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Returns the position after which the following page starts. It is set when a full page is fetched.
+     *
+     * @return The position after which the following page starts, or null if there is no following page.
+     */
+    public PageCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Sets the position after which the following page starts.
+     *
+     * @param nextCursor The position after which the following page starts.
+     */
+    public void setNextCursor(PageCursor nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns the positions after which the pages before the current one start, oldest first. A null position selects its page by number.
+     *
+     * @return The positions of the previous pages that were reached by turning pages.
+     */
+    public List<PageCursor> getPreviousCursors() {
+        return previousCursors;
+    }
+
+    /**
+     * Sets the positions after which the pages before the current one start.
+     *
+     * @param previousCursors The positions of the previous pages, oldest first.
+     */
+    public void setPreviousCursors(List<PageCursor> previousCursors) {
+        this.previousCursors = previousCursors;
+    }
 }
@@ -2,6 +2,7 @@ package de.schwarzes_brett.dto;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Locale;
 
 /**
  * Contains the data of a search.
@@ -23,6 +24,15 @@ public class SearchDTO implements Serializable {
      */
     private String locationSearch;
 
+    /**
+     * The radius in kilometres around the searched location, or null if the location is matched by its name.
+     */
+    private Integer radius;
+
+    /**
+     * The locale of the searching user, which selects the language in which the search term is interpreted.
+     */
+    private Locale locale;
 
     /**
      * Default constructor.
@@ -65,4 +75,40 @@ public class SearchDTO implements Serializable {
     public void setLocationSearch(String locationSearch) {
         this.locationSearch = locationSearch;
     }
+
+    /**
+     * Getter for the radius around the searched location.
+     *
+     * @return The radius in kilometres, or null if the location is matched by its name.
+     */
+    public Integer getRadius() {
+        return radius;
+    }
+
+    /**
+     * Setter for the radius around the searched location.
+     *
+     * @param radius The radius in kilometres to be set.
+     */
+    public void setRadius(Integer radius) {
+        this.radius = radius;
+    }
+
+    /**
+     * Getter for the locale of the searching user.
+     *
+     * @return The locale of the searching user, or null if it is unknown.
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Setter for the locale of the searching user.
+     *
+     * @param locale The locale to be set.
+     */
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
 }
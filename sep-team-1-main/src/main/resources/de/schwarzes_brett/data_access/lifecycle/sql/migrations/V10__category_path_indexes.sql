@@ -0,0 +1,8 @@
+-- no-transaction
+
+/*
+GiST indexes on the category paths, which serve the selection of a whole
+subtree of categories and of their ads.
+*/
+CREATE INDEX CONCURRENTLY IF NOT EXISTS category_path ON schwarzes_brett.category USING GIST (path);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ad_category_path ON schwarzes_brett.ad USING GIST (category_path);
@@ -0,0 +1,27 @@
+-- no-transaction
+
+/*
+Indexes for the foreign keys that listings and lookups filter by. Deleting a
+user, an ad or a category cascades over these columns too, which otherwise
+scans the referencing tables.
+*/
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ad_creator ON schwarzes_brett.ad (creator);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ad_category ON schwarzes_brett.ad (category);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS image_ad_id ON schwarzes_brett.image (ad_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS message_ad_id ON schwarzes_brett.message (ad_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS message_author ON schwarzes_brett.message (author);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS message_addressee ON schwarzes_brett.message (addressee);
+
+/*
+The primary keys of follows and abonnements start with the following user,
+so the followers of a user or an ad need their own indexes.
+*/
+CREATE INDEX CONCURRENTLY IF NOT EXISTS follow_followed_user ON schwarzes_brett.follow (followed_user);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS abonnement_ad ON schwarzes_brett.abonnement (ad);
+
+/*
+Index to find the user of a verification link. Verified users have no
+secret, so they are left out.
+*/
+CREATE INDEX CONCURRENTLY IF NOT EXISTS user_verification_secret ON schwarzes_brett.user (verification_secret)
+    WHERE verification_secret IS NOT NULL;
@@ -0,0 +1,163 @@
+/*
+Read model with everything a listing shows of an ad, so a page is read from
+one row per ad instead of joining the contact data, the category, the images
+and the ratings of the creator. The ads are still filtered and sorted by the
+indexes of the ad table, and their rows here are found by the primary key.
+*/
+CREATE TABLE IF NOT EXISTS schwarzes_brett.ad_listing
+(
+    ad_id                   INT PRIMARY KEY REFERENCES schwarzes_brett.ad ON DELETE CASCADE,
+    title                   VARCHAR(255)                NOT NULL,
+    value                   NUMERIC(20, 2)              NOT NULL,
+    currency                schwarzes_brett.CURRENCY    NOT NULL,
+    is_basis_of_negotiation BOOLEAN                     NOT NULL,
+    has_price               BOOLEAN                     NOT NULL,
+    publishing_time         TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    thumbnail_oid           OID,
+    city                    VARCHAR(168)                NOT NULL,
+    category_name           VARCHAR(255)                NOT NULL,
+    creator_rating          NUMERIC
+);
+
+/*
+Procedure to write the row of an ad from the tables it is derived from.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.refresh_ad_listing(listed_ad INT) RETURNS VOID
+    LANGUAGE SQL AS
+$$
+INSERT INTO schwarzes_brett.ad_listing (ad_id, title, value, currency, is_basis_of_negotiation, has_price, publishing_time, thumbnail_oid,
+                                        city, category_name, creator_rating)
+SELECT a.id, a.title, a.value, a.currency, a.is_basis_of_negotiation, a.has_price, a.publishing_time,
+       (SELECT image_oid FROM schwarzes_brett.image WHERE ad_id = a.id AND is_thumbnail LIMIT 1),
+       cd.city, c.name,
+       (SELECT AVG(valuation) FROM schwarzes_brett.rating WHERE rated_user = a.creator)
+FROM schwarzes_brett.ad a
+         JOIN schwarzes_brett.contact_data cd ON cd.id = a.contact
+         JOIN schwarzes_brett.category c ON c.id = a.category
+WHERE a.id = listed_ad
+ON CONFLICT (ad_id) DO UPDATE SET title                   = excluded.title,
+                                  value                   = excluded.value,
+                                  currency                = excluded.currency,
+                                  is_basis_of_negotiation = excluded.is_basis_of_negotiation,
+                                  has_price               = excluded.has_price,
+                                  publishing_time         = excluded.publishing_time,
+                                  thumbnail_oid           = excluded.thumbnail_oid,
+                                  city                    = excluded.city,
+                                  category_name           = excluded.category_name,
+                                  creator_rating          = excluded.creator_rating;
+$$;
+
+/*
+Trigger with procedure to write the row of an inserted or changed ad. Moving
+a category only changes the paths of its ads, which are not listed.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.list_ad() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    PERFORM schwarzes_brett.refresh_ad_listing(new.id);
+
+    RETURN new;
+END;
+$$;
+
+CREATE TRIGGER ad_listed
+    AFTER INSERT OR UPDATE OF title, value, currency, is_basis_of_negotiation, has_price, publishing_time, category, creator, contact
+    ON schwarzes_brett.ad
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.list_ad();
+
+/*
+Trigger with procedure to update the thumbnail of an ad when its images change.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.list_ad_thumbnail() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE schwarzes_brett.ad_listing
+    SET thumbnail_oid = (SELECT image_oid FROM schwarzes_brett.image WHERE ad_id = ad_listing.ad_id AND is_thumbnail LIMIT 1)
+    WHERE ad_id IN (old.ad_id, new.ad_id);
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER image_listed
+    AFTER INSERT OR UPDATE OR DELETE
+    ON schwarzes_brett.image
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.list_ad_thumbnail();
+
+/*
+Trigger with procedure to update the city of the ads of changed contact data.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.list_ad_city() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE schwarzes_brett.ad_listing
+    SET city = new.city
+    WHERE ad_id IN (SELECT id FROM schwarzes_brett.ad WHERE contact = new.id);
+
+    RETURN new;
+END;
+$$;
+
+CREATE TRIGGER contact_data_listed
+    AFTER UPDATE OF city
+    ON schwarzes_brett.contact_data
+    FOR EACH ROW
+    WHEN (new.city IS DISTINCT FROM old.city)
+EXECUTE PROCEDURE schwarzes_brett.list_ad_city();
+
+/*
+Trigger with procedure to update the category name of the ads of a renamed category.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.list_ad_category() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE schwarzes_brett.ad_listing
+    SET category_name = new.name
+    WHERE ad_id IN (SELECT id FROM schwarzes_brett.ad WHERE category = new.id);
+
+    RETURN new;
+END;
+$$;
+
+CREATE TRIGGER category_listed
+    AFTER UPDATE OF name
+    ON schwarzes_brett.category
+    FOR EACH ROW
+    WHEN (new.name IS DISTINCT FROM old.name)
+EXECUTE PROCEDURE schwarzes_brett.list_ad_category();
+
+/*
+Trigger with procedure to update the rating of the creator of ads when the
+creator is rated.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.list_ad_rating() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    UPDATE schwarzes_brett.ad_listing
+    SET creator_rating = (SELECT AVG(valuation) FROM schwarzes_brett.rating WHERE rated_user = a.creator)
+    FROM schwarzes_brett.ad a
+    WHERE a.id = ad_listing.ad_id
+      AND a.creator IN (old.rated_user, new.rated_user);
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER rating_listed
+    AFTER INSERT OR UPDATE OR DELETE
+    ON schwarzes_brett.rating
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.list_ad_rating();
+
+/*
+Writes the rows of the existing ads.
+*/
+SELECT schwarzes_brett.refresh_ad_listing(id)
+FROM schwarzes_brett.ad;
@@ -0,0 +1,131 @@
+/*
+Feed of the ads each user follows, either because the user follows their
+creator or subscribed to the ad. The rows are written when ads, follows and
+abonnements change, so the followed ads of a user are read by a range scan of
+the primary key instead of joining the follows and abonnements on every page.
+A row is kept as long as one of both reasons holds.
+*/
+CREATE TABLE IF NOT EXISTS schwarzes_brett.follow_feed
+(
+    "user"        INT REFERENCES schwarzes_brett.user ON DELETE CASCADE,
+    ad            INT REFERENCES schwarzes_brett.ad ON DELETE CASCADE,
+    by_follow     BOOLEAN NOT NULL DEFAULT FALSE,
+    by_abonnement BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY ("user", ad)
+);
+
+/*
+Deleting an ad cascades over this column.
+*/
+CREATE INDEX IF NOT EXISTS follow_feed_ad ON schwarzes_brett.follow_feed (ad);
+
+/*
+Trigger with procedure to add a new ad to the feeds of the followers of its
+creator, or to move an ad to the followers of its new creator.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.fan_out_ad() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF tg_op = 'UPDATE' THEN
+        DELETE FROM schwarzes_brett.follow_feed WHERE ad = new.id AND NOT by_abonnement;
+        UPDATE schwarzes_brett.follow_feed SET by_follow = FALSE WHERE ad = new.id;
+    END IF;
+    INSERT INTO schwarzes_brett.follow_feed ("user", ad, by_follow)
+    SELECT following_user, new.id, TRUE
+    FROM schwarzes_brett.follow
+    WHERE followed_user = new.creator
+    ON CONFLICT ("user", ad) DO UPDATE SET by_follow = TRUE;
+
+    RETURN new;
+END;
+$$;
+
+CREATE TRIGGER ad_fanned_out
+    AFTER INSERT
+    ON schwarzes_brett.ad
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.fan_out_ad();
+
+CREATE TRIGGER ad_creator_fanned_out
+    AFTER UPDATE OF creator
+    ON schwarzes_brett.ad
+    FOR EACH ROW
+    WHEN (new.creator IS DISTINCT FROM old.creator)
+EXECUTE PROCEDURE schwarzes_brett.fan_out_ad();
+
+/*
+Trigger with procedure to add the ads of a followed user to the feed of the
+follower, or to remove them again once the user is unfollowed.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.feed_follow() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF tg_op = 'INSERT' THEN
+        INSERT INTO schwarzes_brett.follow_feed ("user", ad, by_follow)
+        SELECT new.following_user, id, TRUE
+        FROM schwarzes_brett.ad
+        WHERE creator = new.followed_user
+        ON CONFLICT ("user", ad) DO UPDATE SET by_follow = TRUE;
+    ELSE
+        DELETE FROM schwarzes_brett.follow_feed
+        WHERE "user" = old.following_user
+          AND NOT by_abonnement
+          AND ad IN (SELECT id FROM schwarzes_brett.ad WHERE creator = old.followed_user);
+        UPDATE schwarzes_brett.follow_feed
+        SET by_follow = FALSE
+        WHERE "user" = old.following_user
+          AND ad IN (SELECT id FROM schwarzes_brett.ad WHERE creator = old.followed_user);
+    END IF;
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER follow_fed
+    AFTER INSERT OR DELETE
+    ON schwarzes_brett.follow
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.feed_follow();
+
+/*
+Trigger with procedure to add a subscribed ad to the feed of the user, or to
+remove it again once the abonnement ends.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.feed_abonnement() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF tg_op = 'INSERT' THEN
+        INSERT INTO schwarzes_brett.follow_feed ("user", ad, by_abonnement)
+        VALUES (new."user", new.ad, TRUE)
+        ON CONFLICT ("user", ad) DO UPDATE SET by_abonnement = TRUE;
+    ELSE
+        DELETE FROM schwarzes_brett.follow_feed WHERE "user" = old."user" AND ad = old.ad AND NOT by_follow;
+        UPDATE schwarzes_brett.follow_feed SET by_abonnement = FALSE WHERE "user" = old."user" AND ad = old.ad;
+    END IF;
+
+    RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER abonnement_fed
+    AFTER INSERT OR DELETE
+    ON schwarzes_brett.abonnement
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.feed_abonnement();
+
+/*
+Writes the feeds of the existing follows and abonnements.
+*/
+INSERT INTO schwarzes_brett.follow_feed ("user", ad, by_follow, by_abonnement)
+SELECT "user", ad, bool_or(by_follow), bool_or(by_abonnement)
+FROM (SELECT f.following_user AS "user", a.id AS ad, TRUE AS by_follow, FALSE AS by_abonnement
+      FROM schwarzes_brett.follow f
+               JOIN schwarzes_brett.ad a ON a.creator = f.followed_user
+      UNION ALL
+      SELECT "user", ad, FALSE, TRUE
+      FROM schwarzes_brett.abonnement) feed
+GROUP BY "user", ad
+ON CONFLICT ("user", ad) DO NOTHING;
@@ -0,0 +1,9 @@
+-- no-transaction
+
+/*
+Indexes for the sortable columns of ad listings. The id breaks ties, so a
+listing can seek to the position after the last ad of the previous page.
+*/
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ad_title_id ON schwarzes_brett.ad (title, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ad_value_id ON schwarzes_brett.ad (value, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ad_publishing_time_id ON schwarzes_brett.ad (publishing_time, id);
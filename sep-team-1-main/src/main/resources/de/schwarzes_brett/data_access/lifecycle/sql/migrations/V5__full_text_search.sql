@@ -0,0 +1,16 @@
+-- no-transaction
+
+/*
+Full text search over title and description of ads. The language of an ad
+is not known, so it is indexed with the German and the English
+configuration, and the search term is parsed in the language of the user.
+Adding the generated column rewrites the ad table once.
+*/
+ALTER TABLE schwarzes_brett.ad
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('german', title), 'A')
+        || setweight(to_tsvector('german', COALESCE(description, '')), 'B')
+        || setweight(to_tsvector('english', title), 'A')
+        || setweight(to_tsvector('english', COALESCE(description, '')), 'B')) STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ad_search_vector ON schwarzes_brett.ad USING GIN (search_vector);
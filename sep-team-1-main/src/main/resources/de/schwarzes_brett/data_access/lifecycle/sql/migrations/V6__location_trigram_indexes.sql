@@ -0,0 +1,16 @@
+-- no-transaction
+
+/*
+Trigram indexes for the location search of ads. They serve substring and
+similarity matches on the city and prefix matches on the postcode.
+*/
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA schwarzes_brett;
+CREATE INDEX CONCURRENTLY IF NOT EXISTS contact_data_city_trgm ON schwarzes_brett.contact_data
+    USING GIN (LOWER(city) schwarzes_brett.gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS contact_data_postcode_trgm ON schwarzes_brett.contact_data
+    USING GIN (postcode schwarzes_brett.gin_trgm_ops);
+
+/*
+Index to find the ads of the contact data matching a location search.
+*/
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ad_contact ON schwarzes_brett.ad (contact);
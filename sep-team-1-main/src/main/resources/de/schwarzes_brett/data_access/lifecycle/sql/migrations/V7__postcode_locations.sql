@@ -0,0 +1,82 @@
+/*
+Table for the coordinates of postcodes, which is filled from a file in the
+GeoNames postal code format on startup. A postcode can cover several places.
+*/
+CREATE TABLE IF NOT EXISTS schwarzes_brett.postcode_location
+(
+    postcode  VARCHAR(20)      NOT NULL,
+    place     VARCHAR(180)     NOT NULL,
+    latitude  DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (postcode, place)
+);
+
+CREATE INDEX IF NOT EXISTS postcode_location_place ON schwarzes_brett.postcode_location (LOWER(place));
+
+/*
+Coordinates of the contact data, which are taken from their postcode.
+*/
+ALTER TABLE schwarzes_brett.contact_data
+    ADD COLUMN IF NOT EXISTS latitude  DOUBLE PRECISION,
+    ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+/*
+Trigger with procedure to store the coordinates of the postcode with the contact data.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.locate_contact_data() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    SELECT AVG(latitude), AVG(longitude)
+    INTO new.latitude, new.longitude
+    FROM schwarzes_brett.postcode_location
+    WHERE postcode = TRIM(new.postcode);
+
+    RETURN new;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS contact_data_located ON schwarzes_brett.contact_data;
+
+CREATE TRIGGER contact_data_located
+    BEFORE INSERT OR UPDATE OF postcode
+    ON schwarzes_brett.contact_data
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.locate_contact_data();
+
+/*
+Functions for the radius search of ads. The box around a location contains all
+points within the radius and is served by the spatial index on the coordinates,
+so the exact distance is only computed for the points inside of it.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.radius_box(latitude DOUBLE PRECISION, longitude DOUBLE PRECISION, radius DOUBLE PRECISION)
+    RETURNS BOX
+    LANGUAGE SQL
+    IMMUTABLE AS
+$$
+SELECT box(point(longitude - radius / (111.195 * cos(radians(LEAST(ABS(latitude) + radius / 111.195, 89)))), latitude - radius / 111.195),
+           point(longitude + radius / (111.195 * cos(radians(LEAST(ABS(latitude) + radius / 111.195, 89)))), latitude + radius / 111.195));
+$$;
+
+CREATE OR REPLACE FUNCTION schwarzes_brett.distance_km(latitude1 DOUBLE PRECISION, longitude1 DOUBLE PRECISION,
+                                                       latitude2 DOUBLE PRECISION, longitude2 DOUBLE PRECISION)
+    RETURNS DOUBLE PRECISION
+    LANGUAGE SQL
+    IMMUTABLE AS
+$$
+SELECT 2 * 6371 * ASIN(LEAST(1, SQRT(SIN(RADIANS(latitude2 - latitude1) / 2) ^ 2
+                                     + COS(RADIANS(latitude1)) * COS(RADIANS(latitude2)) * SIN(RADIANS(longitude2 - longitude1) / 2) ^ 2)));
+$$;
+
+/*
+Locates the existing contact data. Postcodes that are imported on startup
+locate the contact data with them afterwards.
+*/
+UPDATE schwarzes_brett.contact_data c
+SET latitude  = p.latitude,
+    longitude = p.longitude
+FROM (SELECT postcode, AVG(latitude) AS latitude, AVG(longitude) AS longitude
+      FROM schwarzes_brett.postcode_location
+      GROUP BY postcode) p
+WHERE p.postcode = TRIM(c.postcode)
+  AND c.latitude IS NULL;
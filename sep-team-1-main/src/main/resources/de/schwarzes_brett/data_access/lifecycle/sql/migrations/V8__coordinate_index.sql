@@ -0,0 +1,7 @@
+-- no-transaction
+
+/*
+Spatial index on the coordinates of the contact data, which serves the box
+around the location of a radius search.
+*/
+CREATE INDEX CONCURRENTLY IF NOT EXISTS contact_data_coordinates ON schwarzes_brett.contact_data USING GIST (point(longitude, latitude));
@@ -0,0 +1,122 @@
+/*
+The path of a category holds the ids from the root node down to the category
+and is set by a trigger, so a whole subtree can be selected with one indexed
+predicate. The ads hold a copy of the path of their category.
+*/
+CREATE EXTENSION IF NOT EXISTS ltree SCHEMA schwarzes_brett;
+
+ALTER TABLE schwarzes_brett.category
+    ADD COLUMN IF NOT EXISTS path schwarzes_brett.LTREE;
+
+WITH RECURSIVE tree AS (SELECT id, schwarzes_brett.text2ltree(CAST(id AS TEXT)) AS path
+                        FROM schwarzes_brett.category
+                        WHERE parent_id IS NULL
+                        UNION ALL
+                        SELECT c.id, t.path OPERATOR(schwarzes_brett.||) CAST(c.id AS TEXT)
+                        FROM schwarzes_brett.category c
+                                 JOIN tree t ON c.parent_id = t.id)
+UPDATE schwarzes_brett.category c
+SET path = tree.path
+FROM tree
+WHERE c.id = tree.id
+  AND c.path IS NULL;
+
+ALTER TABLE schwarzes_brett.category
+    ALTER COLUMN path SET NOT NULL;
+
+ALTER TABLE schwarzes_brett.ad
+    ADD COLUMN IF NOT EXISTS category_path schwarzes_brett.LTREE;
+
+UPDATE schwarzes_brett.ad a
+SET category_path = c.path
+FROM schwarzes_brett.category c
+WHERE c.id = a.category
+  AND a.category_path IS NULL;
+
+ALTER TABLE schwarzes_brett.ad
+    ALTER COLUMN category_path SET NOT NULL;
+
+/*
+Trigger for setting the path of an inserted or moved category
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.set_category_path() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF new.parent_id IS NULL THEN
+        new.path = schwarzes_brett.text2ltree(CAST(new.id AS TEXT));
+    ELSE
+        new.path = (SELECT path FROM schwarzes_brett.category WHERE id = new.parent_id)
+                       OPERATOR(schwarzes_brett.||) CAST(new.id AS TEXT);
+    END IF;
+    IF tg_op = 'UPDATE' AND new.parent_id IS DISTINCT FROM old.parent_id AND new.path OPERATOR(schwarzes_brett.<@) old.path THEN
+        RAISE EXCEPTION 'The category % cannot be moved into its own subtree.', new.id;
+    END IF;
+
+    RETURN new;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS category_path_set ON schwarzes_brett.category;
+
+CREATE TRIGGER category_path_set
+    BEFORE INSERT OR UPDATE OF parent_id
+    ON schwarzes_brett.category
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.set_category_path();
+
+/*
+Trigger for updating a category, which now also moves the paths of the
+subtree of a moved category and of its ads.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.update_category() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    IF new.parent_id IS NOT NULL THEN
+        UPDATE schwarzes_brett.category
+        SET child_counter = (SELECT COUNT(*) FROM schwarzes_brett.category WHERE parent_id = old.parent_id)
+        WHERE id = old.parent_id;
+        UPDATE schwarzes_brett.category
+        SET child_counter = (SELECT COUNT(*) FROM schwarzes_brett.category WHERE parent_id = new.parent_id)
+        WHERE id = new.parent_id;
+    END IF;
+    IF new.parent_id IS DISTINCT FROM old.parent_id THEN
+        -- Only the subtree of the moved category and its ads get a new path prefix.
+        UPDATE schwarzes_brett.category
+        SET path = new.path OPERATOR(schwarzes_brett.||) schwarzes_brett.subpath(path, schwarzes_brett.nlevel(old.path))
+        WHERE path OPERATOR(schwarzes_brett.<@) old.path;
+        UPDATE schwarzes_brett.ad
+        SET category_path = CASE
+                                WHEN schwarzes_brett.nlevel(category_path) = schwarzes_brett.nlevel(old.path) THEN new.path
+                                ELSE new.path OPERATOR(schwarzes_brett.||)
+                                     schwarzes_brett.subpath(category_path, schwarzes_brett.nlevel(old.path))
+                            END
+        WHERE category_path OPERATOR(schwarzes_brett.<@) old.path;
+    END IF;
+
+    RETURN new;
+END;
+$$;
+
+/*
+Trigger with procedure to copy the path of the category to an ad, so the
+ads of a category and all its subcategories are served by one index.
+*/
+CREATE OR REPLACE FUNCTION schwarzes_brett.set_ad_category_path() RETURNS TRIGGER
+    LANGUAGE plpgsql AS
+$$
+BEGIN
+    new.category_path = (SELECT path FROM schwarzes_brett.category WHERE id = new.category);
+
+    RETURN new;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS ad_category_path_set ON schwarzes_brett.ad;
+
+CREATE TRIGGER ad_category_path_set
+    BEFORE INSERT OR UPDATE OF category
+    ON schwarzes_brett.ad
+    FOR EACH ROW
+EXECUTE PROCEDURE schwarzes_brett.set_ad_category_path();
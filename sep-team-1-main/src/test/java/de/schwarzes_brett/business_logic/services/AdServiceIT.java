@@ -1,6 +1,7 @@
 package de.schwarzes_brett.business_logic.services;
 
 import de.schwarzes_brett.dto.AdDTO;
+import de.schwarzes_brett.dto.AdSummary;
 import de.schwarzes_brett.dto.CategoryDTO;
 import de.schwarzes_brett.dto.CredentialsDTO;
 import de.schwarzes_brett.dto.Currency;
@@ -77,11 +78,11 @@ class AdServiceIT extends ITBase {
         search.setSearchTerm("hammer");
         pagination.setSearch(search);
         pagination.setSortBy("title");
-        List<AdDTO> ads = adService.fetchAds(pagination);
+        List<AdSummary> ads = adService.fetchAds(pagination);
 
         boolean adWithId3Exists = false;
         boolean adWithId4Exists = false;
-        for (AdDTO ad : ads) {
+        for (AdSummary ad : ads) {
             if (ad.getId() == 300) {
                 adWithId3Exists = true;
             }
@@ -123,7 +124,7 @@ class AdServiceIT extends ITBase {
                        + "?id=" + message2.getAd().getId().toString();
         messageService.insertMessage(message1, path1);
         messageService.insertMessage(message2, path2);
-        List<AdDTO> ads = adService.fetchCommentedAds(pagination, user);
+        List<AdSummary> ads = adService.fetchCommentedAds(pagination, user);
         assertEquals("Große Hüpfburg", ads.get(0).getTitle());
         assertEquals("Kleine Hüpfburg", ads.get(1).getTitle());
         cleanup();
@@ -147,7 +148,7 @@ class AdServiceIT extends ITBase {
         adService.insertAd(ad1, -1);
         adService.insertAd(ad2, -1);
         follow.insertFollowUser(follower, followed);
-        List<AdDTO> ads = adService.fetchFollowedAds(pagination, follower);
+        List<AdSummary> ads = adService.fetchFollowedAds(pagination, follower);
         assertEquals("Große Hüpfburg", ads.get(0).getTitle());
         assertEquals("Kleine Hüpfburg", ads.get(1).getTitle());
     }
@@ -174,7 +175,7 @@ class AdServiceIT extends ITBase {
             follow.insertFollowUser(follower, followed);
         }
         follow.removeFollowUser(follower, followed);
-        List<AdDTO> ads = adService.fetchFollowedAds(pagination, follower);
+        List<AdSummary> ads = adService.fetchFollowedAds(pagination, follower);
         assertTrue(ads.isEmpty());
         adService.deleteAd(ad1);
         adService.deleteAd(ad2);
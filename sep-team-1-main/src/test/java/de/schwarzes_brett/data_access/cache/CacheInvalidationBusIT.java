@@ -0,0 +1,82 @@
+package de.schwarzes_brett.data_access.cache;
+
+import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+import de.schwarzes_brett.dto.ApplicationSettingsDTO;
+import de.schwarzes_brett.test_util.integration_test.ITBase;
+import de.schwarzes_brett.test_util.integration_test.ITPerMethodExtension;
+import org.jboss.weld.junit5.auto.EnableAutoWeld;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests that cache invalidations of other nodes are received and only delivered when their transaction commits.
+ */
+@EnableAutoWeld
+@ExtendWith(ITPerMethodExtension.class)
+public class CacheInvalidationBusIT extends ITBase {
+
+    private static final long MAX_DELIVERY_MILLIS = 5000;
+    private static final long POLL_MILLIS = 20;
+    private static final long QUIET_MILLIS = 1500;
+
+    /**
+     * Tests that an invalidation sent by another node removes the cached value.
+     *
+     * @throws Exception If the invalidation could not be sent.
+     */
+    @Test
+    void invalidationOfOtherNodeIsApplied() throws Exception {
+        ApplicationSettingsDaoCache cache = ApplicationSettingsDaoCache.getInstance();
+        cache.setValue(new ApplicationSettingsDTO(), DAOCache.currentVersion());
+        assertNotNull(cache.getValue());
+
+        notifyAsOtherNode(true);
+
+        long deadline = System.currentTimeMillis() + MAX_DELIVERY_MILLIS;
+        while (cache.getValue() != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_MILLIS);
+        }
+        assertNull(cache.getValue());
+    }
+
+    /**
+     * Tests that invalidations of rolled back transactions and invalidations sent by this node do not remove cached values.
+     *
+     * @throws Exception If the invalidations could not be sent.
+     */
+    @Test
+    void rolledBackAndOwnInvalidationsAreIgnored() throws Exception {
+        ApplicationSettingsDaoCache cache = ApplicationSettingsDaoCache.getInstance();
+        cache.setValue(new ApplicationSettingsDTO(), DAOCache.currentVersion());
+
+        notifyAsOtherNode(false);
+        try (Connection connection = ConnectionPoolPsql.getInstance().createDedicatedConnection()) {
+            CacheInvalidationBus.getInstance().publish(connection, CacheInvalidationBus.SETTINGS_CACHE, List.of());
+        }
+
+        Thread.sleep(QUIET_MILLIS);
+        assertNotNull(cache.getValue());
+    }
+
+    private static void notifyAsOtherNode(boolean commit) throws SQLException {
+        try (Connection connection = ConnectionPoolPsql.getInstance().createDedicatedConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify('cache_invalidation', 'other-node:settings:*');")) {
+                statement.execute();
+            }
+            if (commit) {
+                connection.commit();
+            } else {
+                connection.rollback();
+            }
+        }
+    }
+}
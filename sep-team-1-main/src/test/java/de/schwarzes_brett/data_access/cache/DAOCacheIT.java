@@ -0,0 +1,123 @@
+package de.schwarzes_brett.data_access.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the bounds, eviction and statistics of the {@link DAOCache}.
+ */
+public class DAOCacheIT {
+
+    private static final int MAXIMUM_SIZE = 100;
+    private static final int THREAD_COUNT = 4;
+    private static final int WRITES_PER_THREAD = 10_000;
+    private static final long CACHE_TIME = 60_000;
+
+    /**
+     * Tests that the cache does not grow beyond its maximum size and counts the evictions.
+     */
+    @Test
+    void sizeIsBounded() {
+        TestCache cache = new TestCache(CACHE_TIME);
+        for (int i = 0; i < MAXIMUM_SIZE * 3; i++) {
+            assertTrue(cache.setValue(i, "value " + i, DAOCache.currentVersion()));
+        }
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals(MAXIMUM_SIZE, statistics.size());
+        assertEquals(MAXIMUM_SIZE * 2, statistics.evictions());
+    }
+
+    /**
+     * Tests that an entry which is read regularly is kept while entries that are never read are evicted.
+     */
+    @Test
+    void accessedEntryIsKept() {
+        TestCache cache = new TestCache(CACHE_TIME);
+        cache.setValue(0, "hot", DAOCache.currentVersion());
+        for (int i = 1; i < MAXIMUM_SIZE * 10; i++) {
+            assertNotNull(cache.getValue(0));
+            cache.setValue(i, "cold " + i, DAOCache.currentVersion());
+        }
+        assertEquals("hot", cache.getValue(0));
+        for (int i = 1; i < MAXIMUM_SIZE * 5; i++) {
+            assertNull(cache.getValue(i));
+        }
+    }
+
+    /**
+     * Tests that hits and misses are counted and that invalidated values are neither returned nor stored again by older reads.
+     */
+    @Test
+    void hitsMissesAndInvalidationsAreTracked() {
+        TestCache cache = new TestCache(CACHE_TIME);
+        long readVersion = DAOCache.currentVersion();
+        cache.setValue(1, "old", readVersion);
+        assertEquals("old", cache.getValue(1));
+        cache.deleteValue(1);
+        assertNull(cache.getValue(1));
+        assertFalse(cache.setValue(1, "old", readVersion));
+
+        CacheStatistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.hits());
+        assertEquals(1, statistics.misses());
+        assertEquals(0.5, statistics.hitRate());
+    }
+
+    /**
+     * Tests that outdated entries are removed while values are written, without a full sweep.
+     *
+     * @throws InterruptedException If the test was interrupted while waiting for the entries to expire.
+     */
+    @Test
+    void outdatedEntriesExpireOnWrite() throws InterruptedException {
+        TestCache cache = new TestCache(1);
+        for (int i = 0; i < MAXIMUM_SIZE / 2; i++) {
+            cache.setValue(i, "value " + i, DAOCache.currentVersion());
+        }
+        Thread.sleep(2);
+        for (int i = 0; i < MAXIMUM_SIZE / 2; i++) {
+            cache.setValue(1, "value", DAOCache.currentVersion());
+        }
+        assertTrue(cache.getStatistics().expirations() > 0);
+        assertTrue(cache.getStatistics().size() < MAXIMUM_SIZE / 2);
+    }
+
+    /**
+     * Tests that concurrent writers keep the cache within its bounds.
+     */
+    @Test
+    void concurrentWritesStayBounded() {
+        TestCache cache = new TestCache(CACHE_TIME);
+        List<CompletableFuture<Void>> writers = new ArrayList<>();
+        for (int thread = 0; thread < THREAD_COUNT; thread++) {
+            int offset = thread * WRITES_PER_THREAD;
+            writers.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                    cache.setValue(offset + i, "value", DAOCache.currentVersion());
+                    cache.getValue(offset + i / 2);
+                }
+            }));
+        }
+        writers.forEach(CompletableFuture::join);
+        assertTrue(cache.getStatistics().size() <= MAXIMUM_SIZE + THREAD_COUNT);
+    }
+
+    /**
+     * A cache with a small maximum size.
+     */
+    private static final class TestCache extends DAOCache<String> {
+
+        private TestCache(long cacheTime) {
+            super(cacheTime, MAXIMUM_SIZE);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Tests for the caches of the data access.
+ */
+package de.schwarzes_brett.data_access.cache;
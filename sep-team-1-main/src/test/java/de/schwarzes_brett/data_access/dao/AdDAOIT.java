@@ -1,8 +1,16 @@
 package de.schwarzes_brett.data_access.dao;
 
+import de.schwarzes_brett.data_access.db.StatementStatistic;
+import de.schwarzes_brett.data_access.db.StatementStatistics;
 import de.schwarzes_brett.data_access.exception.AdDoesNotExistException;
+import de.schwarzes_brett.data_access.exception.DataStorageAccessException;
 import de.schwarzes_brett.data_access.transaction.TransactionPsql;
 import de.schwarzes_brett.dto.AdDTO;
+import de.schwarzes_brett.dto.AdSummary;
+import de.schwarzes_brett.dto.CategoryDTO;
+import de.schwarzes_brett.dto.ImageDTO;
+import de.schwarzes_brett.dto.PaginationDTO;
+import de.schwarzes_brett.dto.UserDTO;
 import de.schwarzes_brett.test_util.integration_test.ITBase;
 import de.schwarzes_brett.test_util.integration_test.ITPerClassExtension;
 import org.jboss.weld.junit5.auto.EnableAutoWeld;
@@ -10,6 +18,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -23,6 +49,32 @@ public class AdDAOIT extends ITBase {
 
     static final int AD_ID = 6;
     static final int USER_ID = 32;
+    static final int AD_WITH_IMAGES = 300;
+    static final int AD_WITH_THUMBNAIL = 400;
+    static final int AD_WITHOUT_IMAGES = 100;
+    static final long THUMBNAIL_OID = 900_001;
+    static final long IMAGE_OID = 900_002;
+    static final long OTHER_THUMBNAIL_OID = 900_003;
+    static final int ITEMS_PER_PAGE = 10;
+    static final int CREATOR_ID = 1;
+    static final int CURSOR_PAGE_SIZE = 3;
+    static final int DEGGENDORF_CONTACT_ID = 900_100;
+    static final int SMALL_RADIUS = 10;
+    static final int LARGE_RADIUS = 80;
+    static final int CARS_CATEGORY_ID = 1;
+    static final int SERVICES_CATEGORY_ID = 3;
+    static final int TIRES_CATEGORY_ID = 4;
+    static final int SMALL_TIRES_CATEGORY_ID = 7;
+    static final int TIRE_AD_ID = 600;
+    static final int GENERATED_ADS = 20_000;
+    static final int FIRST_GENERATED_AD_ID = 10_000_000;
+    static final int GUMMI_HAMMER_CATEGORY_ID = 2;
+    static final int GUMMI_HAMMER_CONTACT_ID = 100;
+    static final int RATED_AD_ID = 500;
+    static final int RATED_CREATOR_ID = 592;
+    static final int RATING_USER_ID = 200;
+    // The driver prepares a statement on the server from its fifth execution on.
+    static final int PREPARE_THRESHOLD = 5;
 
     @Test
     void testInvalidAdId() {
@@ -38,4 +90,520 @@ public class AdDAOIT extends ITBase {
         }
         assertTrue(success, "Could load ad with id that doesnt exist.");
     }
+
+    /**
+     * Tests that a listing page reads the thumbnails of its ads from the listing read model, so it does not query the images.
+     *
+     * @throws SQLException If the test images could not be inserted.
+     */
+    @Test
+    void testListingReadsThumbnailsFromReadModel() throws SQLException {
+        TransactionPsql trans = new TransactionPsql();
+        try {
+            try (PreparedStatement statement = trans.getConnection().prepareStatement(
+                    "INSERT INTO schwarzes_brett.image(image_oid, is_thumbnail, ad_id) VALUES (?, TRUE, ?), (?, FALSE, ?), (?, TRUE, ?);")) {
+                statement.setLong(1, THUMBNAIL_OID);
+                statement.setInt(2, AD_WITH_IMAGES);
+                statement.setLong(3, IMAGE_OID);
+                statement.setInt(4, AD_WITH_IMAGES);
+                statement.setLong(5, OTHER_THUMBNAIL_OID);
+                statement.setInt(6, AD_WITH_THUMBNAIL);
+                statement.executeUpdate();
+            }
+            StatementStatistics.getInstance().reset();
+            PaginationDTO pagination = new PaginationDTO();
+            pagination.setItemsPerPage(ITEMS_PER_PAGE);
+            pagination.setSortBy("title");
+            pagination.setShowExpiredAds(true);
+
+            Map<Integer, AdSummary> ads = new AdDAOPsql(trans).fetchAds(pagination).stream()
+                                                              .collect(Collectors.toMap(AdSummary::getId, Function.identity()));
+
+            assertTrue(ads.size() > 2);
+            assertTrue(StatementStatistics.getInstance().getStatistics().stream()
+                                          .noneMatch(statistic -> statistic.sql().contains("schwarzes_brett.image")));
+            assertEquals(THUMBNAIL_OID, ads.get(AD_WITH_IMAGES).getThumbnailId());
+            assertEquals(OTHER_THUMBNAIL_OID, ads.get(AD_WITH_THUMBNAIL).getThumbnailId());
+            assertNull(ads.get(AD_WITHOUT_IMAGES).getThumbnailId());
+        } finally {
+            trans.abort();
+        }
+    }
+
+    /**
+     * Tests that the listing read model follows the changes of an ad, its thumbnail, its contact data, its category and the ratings of its
+     * creator.
+     *
+     * @throws SQLException If the test data could not be changed.
+     */
+    @Test
+    void testListingReadModelFollowsChanges() throws SQLException {
+        TransactionPsql trans = new TransactionPsql();
+        try {
+            try (Statement statement = trans.getConnection().createStatement()) {
+                statement.executeUpdate("UPDATE schwarzes_brett.ad SET title = 'Kleine Hüpfburg', value = 99.50 WHERE id = " + RATED_AD_ID + ";");
+                statement.executeUpdate("INSERT INTO schwarzes_brett.image(image_oid, is_thumbnail, ad_id) VALUES (" + THUMBNAIL_OID
+                                        + ", TRUE, " + RATED_AD_ID + ");");
+                statement.executeUpdate("UPDATE schwarzes_brett.contact_data SET city = 'Deggendorf' WHERE id = " + GUMMI_HAMMER_CONTACT_ID + ";");
+                statement.executeUpdate("UPDATE schwarzes_brett.category SET name = 'Spielzeug' WHERE id = " + GUMMI_HAMMER_CATEGORY_ID + ";");
+                statement.executeUpdate("INSERT INTO schwarzes_brett.rating(rated_user, rating_user, valuation) VALUES (" + RATED_CREATOR_ID
+                                        + ", " + RATING_USER_ID + ", 4);");
+            }
+            PaginationDTO pagination = listingPagination("title", true);
+            pagination.setItemsPerPage(ITEMS_PER_PAGE);
+            pagination.setCategory(new CategoryDTO(GUMMI_HAMMER_CATEGORY_ID, null, null, 0, 0));
+
+            AdSummary ad = new AdDAOPsql(trans).fetchAds(pagination).stream()
+                                               .filter(summary -> summary.getId() == RATED_AD_ID).findFirst().orElseThrow();
+
+            assertEquals("Kleine Hüpfburg", ad.getTitle());
+            assertEquals(0, new BigDecimal("99.50").compareTo(ad.getValue()));
+            assertEquals(THUMBNAIL_OID, ad.getThumbnailId());
+            assertEquals("Deggendorf", ad.getCity());
+            assertEquals("Spielzeug", ad.getCategoryName());
+            assertEquals(0, BigDecimal.valueOf(4).compareTo(ad.getCreatorRating()));
+        } finally {
+            trans.abort();
+        }
+    }
+
+    /**
+     * Tests that the images of a new ad are inserted with one batch, and that changing the thumbnail only flags the selected image.
+     *
+     * @throws SQLException If the images of the ad could not be read.
+     */
+    @Test
+    void testInsertAdBatchesImages() throws SQLException {
+        AdDTO ad = new AdDTO();
+        ad.setId(AD_WITH_IMAGES);
+        // Fetching an ad ends its transaction, so the copied ad is inserted with another one.
+        new AdDAOPsql(new TransactionPsql(true)).fetchAd(ad, USER_ID, false);
+        TransactionPsql trans = new TransactionPsql();
+        try {
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            List<ImageDTO> images = new ArrayList<>();
+            for (long id : new long[]{THUMBNAIL_OID, IMAGE_OID, OTHER_THUMBNAIL_OID}) {
+                ImageDTO image = new ImageDTO();
+                image.setId(id);
+                images.add(image);
+            }
+            ad.setImages(images);
+            StatementStatistics.getInstance().reset();
+
+            adDAO.insertAd(ad);
+
+            assertEquals(1, StatementStatistics.getInstance().getStatistics().stream()
+                                                .filter(statistic -> statistic.sql().startsWith("INSERT INTO schwarzes_brett.image"))
+                                                .mapToLong(StatementStatistic::executions).sum());
+            adDAO.updateThumbnail(ad, 0);
+            adDAO.updateThumbnail(ad, 2);
+            try (PreparedStatement statement = trans.getConnection().prepareStatement(
+                    "SELECT image_oid FROM schwarzes_brett.image WHERE ad_id = ? AND is_thumbnail;")) {
+                statement.setInt(1, ad.getId());
+                try (ResultSet result = statement.executeQuery()) {
+                    assertTrue(result.next());
+                    assertEquals(OTHER_THUMBNAIL_OID, result.getLong(1));
+                    assertFalse(result.next());
+                }
+            }
+            try (PreparedStatement statement = trans.getConnection().prepareStatement(
+                    "SELECT COUNT(*) FROM schwarzes_brett.image WHERE ad_id = ?;")) {
+                statement.setInt(1, ad.getId());
+                try (ResultSet result = statement.executeQuery()) {
+                    assertTrue(result.next());
+                    assertEquals(images.size(), result.getInt(1));
+                }
+            }
+        } finally {
+            trans.abort();
+        }
+    }
+
+    /**
+     * Tests that the followed ads are read from the follow feed, which follows new ads, follows and abonnements.
+     *
+     * @throws SQLException If the follows, abonnements or ads could not be changed.
+     */
+    @Test
+    void testFollowedAdsAreReadFromFeed() throws SQLException {
+        TransactionPsql trans = new TransactionPsql();
+        try {
+            UserDTO follower = new UserDTO();
+            follower.setId(RATING_USER_ID);
+            PaginationDTO pagination = listingPagination("title", true);
+            pagination.setItemsPerPage(ITEMS_PER_PAGE);
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            try (Statement statement = trans.getConnection().createStatement()) {
+                statement.executeUpdate("INSERT INTO schwarzes_brett.follow(following_user, followed_user) VALUES (" + RATING_USER_ID + ", "
+                                        + RATED_CREATOR_ID + ");");
+                statement.executeUpdate("INSERT INTO schwarzes_brett.abonnement(\"user\", ad) VALUES (" + RATING_USER_ID + ", "
+                                        + AD_WITH_IMAGES + ");");
+            }
+            StatementStatistics.getInstance().reset();
+            assertEquals(Set.of(RATED_AD_ID, AD_WITH_IMAGES), adIds(adDAO.fetchFollowedAds(pagination, follower)));
+            assertTrue(StatementStatistics.getInstance().getStatistics().stream()
+                                          .noneMatch(statistic -> statistic.sql().contains("schwarzes_brett.follow ")
+                                                                  || statistic.sql().contains("schwarzes_brett.abonnement")));
+
+            int newAdId;
+            try (Statement statement = trans.getConnection().createStatement()) {
+                try (ResultSet result = statement.executeQuery(
+                        "INSERT INTO schwarzes_brett.ad(title, value, currency, is_basis_of_negotiation, has_price, publishing_time, category, "
+                        + "creator, contact) SELECT 'Neue Hüpfburg', value, currency, is_basis_of_negotiation, has_price, publishing_time, "
+                        + "category, creator, contact FROM schwarzes_brett.ad WHERE id = " + RATED_AD_ID + " RETURNING id;")) {
+                    assertTrue(result.next());
+                    newAdId = result.getInt(1);
+                }
+                statement.executeUpdate("DELETE FROM schwarzes_brett.abonnement WHERE \"user\" = " + RATING_USER_ID + ";");
+            }
+            assertEquals(Set.of(RATED_AD_ID, newAdId), adIds(adDAO.fetchFollowedAds(pagination, follower)));
+            assertEquals(1, adDAO.fetchFollowedAdsLastPageNumber(pagination, follower));
+
+            try (Statement statement = trans.getConnection().createStatement()) {
+                statement.executeUpdate("DELETE FROM schwarzes_brett.follow WHERE following_user = " + RATING_USER_ID + ";");
+            }
+            assertTrue(adDAO.fetchFollowedAds(pagination, follower).isEmpty());
+        } finally {
+            trans.abort();
+        }
+    }
+
+    /**
+     * Tests that an ad with its images and messages is fetched with a single round trip, for every variant of the messages shown.
+     */
+    @Test
+    void testFetchAdUsesOneRoundTrip() {
+        assertEquals(1, fetchAdRoundTrips(null, false), "Fetching an ad without messages took more than one round trip.");
+        assertEquals(1, fetchAdRoundTrips(CREATOR_ID, true), "Fetching an ad with all messages took more than one round trip.");
+
+        AdDTO ad = new AdDTO();
+        ad.setId(AD_WITH_IMAGES);
+        StatementStatistics.getInstance().reset();
+
+        try (TransactionPsql trans = new TransactionPsql(true)) {
+            new AdDAOPsql(trans).fetchAd(ad, USER_ID, false);
+            trans.commit();
+        }
+
+        long executions = StatementStatistics.getInstance().getStatistics().stream().mapToLong(StatementStatistic::executions).sum();
+        assertEquals(1, executions);
+        assertEquals("Gummi Hammer", ad.getTitle());
+        assertEquals(CREATOR_ID, ad.getCreator().getId());
+        assertNotNull(ad.getImages());
+        assertNotNull(ad.getMessages());
+    }
+
+    /**
+     * Tests that walking a listing with cursors returns the same pages as selecting them by their number, for both sortable columns and
+     * directions.
+     */
+    @Test
+    void testCursorPagesMatchNumberedPages() {
+        try (TransactionPsql trans = new TransactionPsql(true)) {
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            for (String sortBy : List.of("title", "value", PaginationDTO.SORT_BY_RELEVANCE)) {
+                for (boolean ascending : List.of(true, false)) {
+                    assertCursorPagesMatchNumberedPages(adDAO, sortBy, ascending);
+                }
+            }
+            trans.commit();
+        }
+    }
+
+    private static void assertCursorPagesMatchNumberedPages(AdDAOPsql adDAO, String sortBy, boolean ascending) {
+        PaginationDTO numbered = listingPagination(sortBy, ascending);
+        PaginationDTO seeking = listingPagination(sortBy, ascending);
+        List<AdSummary> page;
+        do {
+            page = adDAO.fetchAds(seeking);
+            List<AdSummary> expected = adDAO.fetchAds(numbered);
+            assertEquals(expected.stream().map(AdSummary::getId).toList(), page.stream().map(AdSummary::getId).toList(),
+                         "Page " + numbered.getPageNumber() + " sorted by " + sortBy + " differs.");
+            numbered.setPageNumber(numbered.getPageNumber() + 1);
+            seeking.setCursor(seeking.getNextCursor());
+        } while (seeking.getCursor() != null);
+        assertTrue(numbered.getPageNumber() > 2, "The listing did not span several pages.");
+        assertTrue(page.size() < CURSOR_PAGE_SIZE || adDAO.fetchAds(numbered).isEmpty());
+    }
+
+    /**
+     * Tests that a listing counts its pages with the same query as the page, that a page after a cursor is not counted and keeps the last
+     * page number, and that the listing falls back to counting separately if the page is behind the last one.
+     */
+    @Test
+    void testListingCountsPagesInSameQuery() {
+        try (TransactionPsql trans = new TransactionPsql(true)) {
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            PaginationDTO pagination = listingPagination("title", true);
+            int lastPageNumber = adDAO.fetchLastPageNumber(pagination);
+            assertTrue(lastPageNumber > 2, "The listing did not span several pages.");
+
+            StatementStatistics.getInstance().reset();
+            adDAO.fetchAds(pagination);
+            List<StatementStatistic> adQueries = StatementStatistics.getInstance().getStatistics().stream()
+                                                                    .filter(statistic -> !statistic.sql().contains("schwarzes_brett.image"))
+                                                                    // The listing is planned first to decide whether it is counted.
+                                                                    .filter(statistic -> !statistic.sql().startsWith("EXPLAIN"))
+                                                                    .toList();
+            assertEquals(1, adQueries.size());
+            assertEquals(1, adQueries.get(0).executions());
+            assertEquals(lastPageNumber, pagination.getLastPageNumber());
+
+            pagination.setCursor(pagination.getNextCursor());
+            pagination.setPageNumber(2);
+            StatementStatistics.getInstance().reset();
+            adDAO.fetchAds(pagination);
+            assertTrue(StatementStatistics.getInstance().getStatistics().stream().noneMatch(statistic -> statistic.sql().contains("OVER")),
+                       "The page after a cursor was counted.");
+            assertEquals(lastPageNumber, pagination.getLastPageNumber());
+
+            pagination.setCursor(null);
+            pagination.setPageNumber(lastPageNumber + 1);
+            assertTrue(adDAO.fetchAds(pagination).isEmpty());
+            assertEquals(lastPageNumber, pagination.getLastPageNumber());
+            trans.commit();
+        }
+    }
+
+    /**
+     * Tests that a large listing without filters is estimated and capped instead of counted, while a filtered listing of the same ads is
+     * counted up to the count limit and shown as a lower bound. The ads are generated in a transaction that is rolled back.
+     *
+     * @throws SQLException If the ads could not be generated.
+     */
+    @Test
+    void testLargeUnfilteredListingIsEstimated() throws SQLException {
+        TransactionPsql trans = new TransactionPsql();
+        try {
+            try (PreparedStatement statement = trans.getConnection().prepareStatement(
+                    "INSERT INTO schwarzes_brett.ad(id, title, value, currency, is_basis_of_negotiation, has_price, publishing_time, category, "
+                    + "creator, contact) SELECT i, 'Generated ' || i, 1, 'EUR', FALSE, TRUE, NOW() - INTERVAL '1 day', ?, ?, ? "
+                    + "FROM generate_series(?, ?) i;")) {
+                statement.setInt(1, GUMMI_HAMMER_CATEGORY_ID);
+                statement.setInt(2, CREATOR_ID);
+                statement.setInt(3, GUMMI_HAMMER_CONTACT_ID);
+                statement.setInt(4, FIRST_GENERATED_AD_ID);
+                statement.setInt(5, FIRST_GENERATED_AD_ID + GENERATED_ADS - 1);
+                statement.executeUpdate();
+            }
+            try (Statement statement = trans.getConnection().createStatement()) {
+                // Analyze sees the uncommitted rows of its own transaction.
+                statement.execute("ANALYZE schwarzes_brett.ad;");
+            }
+            DAOPsqlUtil.forgetEstimates();
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            PaginationDTO pagination = listingPagination("title", true);
+            assertEquals(PaginationDTO.MAX_ESTIMATED_LAST_PAGE_NUMBER, adDAO.fetchLastPageNumber(pagination));
+            assertTrue(pagination.isLastPageNumberEstimated());
+
+            StatementStatistics.getInstance().reset();
+            assertEquals(CURSOR_PAGE_SIZE, adDAO.fetchAds(pagination).size());
+            assertTrue(StatementStatistics.getInstance().getStatistics().stream().noneMatch(statistic -> statistic.sql().contains("OVER")),
+                       "The estimated listing was counted.");
+            assertEquals(PaginationDTO.MAX_ESTIMATED_LAST_PAGE_NUMBER, pagination.getLastPageNumber());
+            assertTrue(pagination.isLastPageNumberEstimated());
+
+            pagination.setPageNumber(PaginationDTO.MAX_ESTIMATED_LAST_PAGE_NUMBER);
+            adDAO.fetchAds(pagination);
+            pagination.setCursor(pagination.getNextCursor());
+            pagination.setPageNumber(PaginationDTO.MAX_ESTIMATED_LAST_PAGE_NUMBER + 1);
+            assertEquals(CURSOR_PAGE_SIZE, adDAO.fetchAds(pagination).size(), "The page after the estimated last page is unreachable.");
+            assertEquals(PaginationDTO.MAX_ESTIMATED_LAST_PAGE_NUMBER + 1, pagination.getLastPageNumber());
+            assertNotNull(pagination.getNextCursor());
+            pagination.setCursor(null);
+            pagination.setPageNumber(1);
+
+            pagination.setCategory(new CategoryDTO(GUMMI_HAMMER_CATEGORY_ID, null, null, 0, 0));
+            StatementStatistics.getInstance().reset();
+            adDAO.fetchAds(pagination);
+            assertTrue(StatementStatistics.getInstance().getStatistics().stream().anyMatch(statistic -> statistic.sql().contains("OVER")),
+                       "The filtered listing was not counted.");
+            assertEquals(PaginationDTO.MAX_ESTIMATED_LAST_PAGE_NUMBER, pagination.getLastPageNumber());
+            assertTrue(pagination.isLastPageNumberEstimated());
+        } finally {
+            trans.abort();
+            DAOPsqlUtil.forgetEstimates();
+        }
+    }
+
+    /**
+     * Tests that all pages of a listing are fetched with the same SQL text, so the driver prepares the listing only once on the server, and
+     * that unknown sort columns are rejected.
+     *
+     * @throws SQLException If the prepared statements could not be read.
+     */
+    @Test
+    void testListingPagesShareOnePreparedStatement() throws SQLException {
+        try (TransactionPsql trans = new TransactionPsql(true)) {
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            PaginationDTO pagination = listingPagination("value", false);
+            for (int i = 0; i <= PREPARE_THRESHOLD; i++) {
+                pagination.setPageNumber(i % 2 + 1);
+                assertEquals(CURSOR_PAGE_SIZE, adDAO.fetchAds(pagination).size());
+            }
+            try (PreparedStatement statement = trans.getConnection().prepareStatement(
+                    "SELECT COUNT(*) FROM pg_prepared_statements WHERE statement LIKE '%COUNT(*) OVER()%ORDER BY ad.value DESC%';");
+                 ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next());
+                assertEquals(1, result.getInt(1));
+            }
+
+            pagination.setSortBy("value; DROP TABLE schwarzes_brett.ad");
+            assertThrows(IllegalArgumentException.class, () -> adDAO.fetchAds(pagination));
+            trans.commit();
+        }
+    }
+
+    /**
+     * Tests that the search term is stemmed in the language of the user, understands the web search syntax and ranks the matches.
+     */
+    @Test
+    void testFullTextSearch() {
+        try (TransactionPsql trans = new TransactionPsql(true)) {
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            PaginationDTO pagination = listingPagination(PaginationDTO.SORT_BY_RELEVANCE, false);
+            pagination.setItemsPerPage(ITEMS_PER_PAGE);
+            pagination.getSearch().setLocale(Locale.ENGLISH);
+
+            pagination.getSearch().setSearchTerm("hammers");
+            assertEquals(Set.of(AD_WITH_IMAGES, AD_WITH_THUMBNAIL), adIds(adDAO.fetchAds(pagination)));
+            assertEquals(1, adDAO.fetchLastPageNumber(pagination));
+
+            pagination.getSearch().setSearchTerm("hammer -riesen");
+            assertEquals(Set.of(AD_WITH_IMAGES), adIds(adDAO.fetchAds(pagination)));
+
+            pagination.getSearch().setSearchTerm("riesen OR gummi");
+            List<AdSummary> ranked = adDAO.fetchAds(pagination);
+            assertEquals(AD_WITH_THUMBNAIL, ranked.get(0).getId(), "The ad matching both words was not ranked first.");
+            trans.commit();
+        }
+    }
+
+    /**
+     * Tests that postcodes are matched by their prefix and cities by part of their name or a similar name.
+     */
+    @Test
+    void testLocationSearch() {
+        try (TransactionPsql trans = new TransactionPsql(true)) {
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            PaginationDTO pagination = listingPagination("title", true);
+            pagination.setItemsPerPage(ITEMS_PER_PAGE);
+            pagination.getSearch().setSearchTerm("hammer");
+
+            for (String location : List.of("940", "Passau", "ssa", "Pasau")) {
+                pagination.getSearch().setLocationSearch(location);
+                assertEquals(Set.of(AD_WITH_IMAGES, AD_WITH_THUMBNAIL), adIds(adDAO.fetchAds(pagination)), "No ads found in " + location);
+            }
+            for (String location : List.of("032", "Berlin", "pa%")) {
+                pagination.getSearch().setLocationSearch(location);
+                assertTrue(adDAO.fetchAds(pagination).isEmpty(), "Ads found in " + location);
+                assertEquals(1, adDAO.fetchLastPageNumber(pagination));
+            }
+            trans.commit();
+        }
+    }
+
+    /**
+     * Tests that the radius search finds the ads around a postcode or place and sorts them by their distance.
+     *
+     * @throws SQLException If the contact data of the test could not be changed.
+     */
+    @Test
+    void testRadiusSearch() throws SQLException {
+        TransactionPsql trans = new TransactionPsql();
+        try {
+            try (PreparedStatement statement = trans.getConnection().prepareStatement(
+                    "INSERT INTO schwarzes_brett.contact_data(id, e_mail, country, city, postcode) VALUES (?, 'radius', 'Germany', 'Deggendorf', "
+                    + "'94469'); UPDATE schwarzes_brett.ad SET contact = ? WHERE id = ?;")) {
+                statement.setInt(1, DEGGENDORF_CONTACT_ID);
+                statement.setInt(2, DEGGENDORF_CONTACT_ID);
+                statement.setInt(3, AD_WITH_IMAGES);
+                statement.executeUpdate();
+            }
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            PaginationDTO pagination = listingPagination(PaginationDTO.SORT_BY_DISTANCE, true);
+            pagination.setItemsPerPage(ITEMS_PER_PAGE);
+            pagination.getSearch().setSearchTerm("hammer");
+
+            pagination.getSearch().setLocationSearch("94036");
+            pagination.getSearch().setRadius(SMALL_RADIUS);
+            assertEquals(Set.of(AD_WITH_THUMBNAIL), adIds(adDAO.fetchAds(pagination)));
+            pagination.getSearch().setLocationSearch("deggendorf");
+            assertEquals(Set.of(AD_WITH_IMAGES), adIds(adDAO.fetchAds(pagination)));
+            assertEquals(1, adDAO.fetchLastPageNumber(pagination));
+
+            pagination.getSearch().setLocationSearch("Passau");
+            pagination.getSearch().setRadius(LARGE_RADIUS);
+            assertEquals(List.of(AD_WITH_THUMBNAIL, AD_WITH_IMAGES), adDAO.fetchAds(pagination).stream().map(AdSummary::getId).toList());
+            pagination.setSortAscending(false);
+            assertEquals(List.of(AD_WITH_IMAGES, AD_WITH_THUMBNAIL), adDAO.fetchAds(pagination).stream().map(AdSummary::getId).toList());
+
+            pagination.getSearch().setLocationSearch("Atlantis");
+            assertTrue(adDAO.fetchAds(pagination).isEmpty(), "Ads found around an unknown place.");
+        } finally {
+            trans.abort();
+        }
+    }
+
+    /**
+     * Tests that a category selects the ads of all its subcategories and that moving a category moves its ads into the new subtree.
+     *
+     * @throws SQLException If the path of a category could not be read.
+     */
+    @Test
+    void testCategorySubtree() throws SQLException {
+        TransactionPsql trans = new TransactionPsql();
+        try {
+            AdDAOPsql adDAO = new AdDAOPsql(trans);
+            PaginationDTO pagination = listingPagination("title", true);
+            pagination.setItemsPerPage(ITEMS_PER_PAGE);
+            pagination.setCategory(new CategoryDTO(CARS_CATEGORY_ID, null, null, 0, 0));
+            assertEquals(Set.of(AD_WITHOUT_IMAGES, TIRE_AD_ID), adIds(adDAO.fetchAds(pagination)));
+            assertEquals(1, adDAO.fetchLastPageNumber(pagination));
+
+            CategoryDTO tires = new CategoryDTO(TIRES_CATEGORY_ID, "Autoreifen", "", CARS_CATEGORY_ID, 2);
+            CategoryDAOPsql categoryDAO = new CategoryDAOPsql(trans);
+            categoryDAO.updateCategory(tires, new CategoryDTO(SERVICES_CATEGORY_ID, null, null, 0, 0));
+            assertTrue(adDAO.fetchAds(pagination).isEmpty(), "The moved ads are still found in the previous parent category.");
+            pagination.setCategory(new CategoryDTO(SERVICES_CATEGORY_ID, null, null, 0, 0));
+            assertEquals(Set.of(AD_WITHOUT_IMAGES, TIRE_AD_ID), adIds(adDAO.fetchAds(pagination)));
+            try (PreparedStatement statement = trans.getConnection().prepareStatement(
+                    "SELECT CAST(path AS TEXT) FROM schwarzes_brett.category WHERE id = ?;")) {
+                statement.setInt(1, SMALL_TIRES_CATEGORY_ID);
+                try (ResultSet result = statement.executeQuery()) {
+                    assertTrue(result.next());
+                    assertEquals("0.3.4.7", result.getString(1));
+                }
+            }
+
+            CategoryDTO services = new CategoryDTO(SERVICES_CATEGORY_ID, "Dienstleistungen", "", 0, 3);
+            assertThrows(DataStorageAccessException.class,
+                         () -> categoryDAO.updateCategory(services, new CategoryDTO(SMALL_TIRES_CATEGORY_ID, null, null, 0, 0)));
+        } finally {
+            trans.abort();
+        }
+    }
+
+    private static Set<Integer> adIds(List<AdSummary> ads) {
+        return ads.stream().map(AdSummary::getId).collect(Collectors.toSet());
+    }
+
+    private static long fetchAdRoundTrips(Integer userId, boolean isAdminOrCreator) {
+        AdDTO ad = new AdDTO();
+        ad.setId(AD_WITH_IMAGES);
+        StatementStatistics.getInstance().reset();
+        try (TransactionPsql trans = new TransactionPsql(true)) {
+            new AdDAOPsql(trans).fetchAd(ad, userId, isAdminOrCreator);
+        }
+        return StatementStatistics.getInstance().getStatistics().stream().mapToLong(StatementStatistic::executions).sum();
+    }
+
+    private static PaginationDTO listingPagination(String sortBy, boolean ascending) {
+        PaginationDTO pagination = new PaginationDTO();
+        pagination.setItemsPerPage(CURSOR_PAGE_SIZE);
+        pagination.setSortBy(sortBy);
+        pagination.setSortAscending(ascending);
+        pagination.setShowExpiredAds(true);
+        return pagination;
+    }
 }
@@ -0,0 +1,150 @@
+package de.schwarzes_brett.data_access.dao;
+
+import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+import de.schwarzes_brett.dto.SearchDTO;
+import de.schwarzes_brett.logging.LoggerProducer;
+import de.schwarzes_brett.test_util.integration_test.ITBase;
+import de.schwarzes_brett.test_util.integration_test.ITPerClassExtension;
+import org.jboss.weld.junit5.auto.EnableAutoWeld;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the location search of ads with the substring matching it replaced, on a generated data set of one million ads. The data is
+ * inserted in a transaction that is rolled back afterwards. The previous state is measured by dropping the trigram indexes in the same
+ * transaction.
+ * <p>
+ * The benchmark takes a few minutes and only runs with {@code -Dbenchmark=true}. The number of ads can be set with {@code -Dbenchmark.ads}.
+ */
+@EnableAutoWeld
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@ExtendWith(ITPerClassExtension.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LocationSearchBenchmarkIT extends ITBase {
+
+    private static final int DEFAULT_ADS = 1_000_000;
+    private static final int CITIES = 50_000;
+    private static final int POSTCODES = 100_000;
+    private static final int RUNS = 20;
+    // Above the ids of the test data, which are inserted explicitly and not taken from the sequences.
+    private static final int FIRST_ID = 10_000_000;
+    // The generated name of city 4711 is "Ort " followed by the beginning of MD5('4711').
+    private static final String CITY = "b52340b4de";
+    private static final String PREVIOUS_QUERY = "SELECT COUNT(*) FROM schwarzes_brett.ad "
+                                                 + "LEFT OUTER JOIN schwarzes_brett.contact_data contact ON contact = contact.id "
+                                                 + "WHERE ((LOWER(contact.city) LIKE ('%' || ? || '%') OR ? IS NULL) "
+                                                 + "OR (contact.postcode LIKE ('%' || ? || '%') OR ? IS NULL));";
+    private static final String QUERY = "SELECT COUNT(*) FROM schwarzes_brett.ad JOIN schwarzes_brett.contact_data c ON ad.contact = c.id "
+                                        + "WHERE TRUE ";
+    private final Logger logger = LoggerProducer.get(LocationSearchBenchmarkIT.class);
+
+    /**
+     * Measures the plans and latencies of a city and a postcode search with and without the trigram indexes.
+     *
+     * @throws SQLException If the data set could not be generated or a query failed.
+     */
+    @Test
+    void benchmarkLocationSearch() throws SQLException {
+        Connection connection = ConnectionPoolPsql.getInstance().getConnection(false);
+        try {
+            generateAds(connection, Integer.getInteger("benchmark.ads", DEFAULT_ADS));
+            List<String> locations = List.of(CITY.substring(0, CITY.length() - 2), "9403");
+            long[] currentNanos = new long[locations.size()];
+            for (int i = 0; i < locations.size(); i++) {
+                currentNanos[i] = measure(connection, locations.get(i), false);
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP INDEX schwarzes_brett.contact_data_city_trgm, schwarzes_brett.contact_data_postcode_trgm, "
+                                  + "schwarzes_brett.ad_contact;");
+            }
+            for (int i = 0; i < locations.size(); i++) {
+                long previousNanos = measure(connection, locations.get(i), true);
+                logger.info("Searching ads in " + locations.get(i) + " took " + TimeUnit.NANOSECONDS.toMicros(previousNanos) + " us before and "
+                            + TimeUnit.NANOSECONDS.toMicros(currentNanos[i]) + " us with the trigram indexes.");
+                assertTrue(currentNanos[i] < previousNanos, "The location search in " + locations.get(i) + " did not get faster.");
+            }
+        } finally {
+            connection.rollback();
+            ConnectionPoolPsql.getInstance().releaseConnection(connection);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static void generateAds(Connection connection, int ads) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO schwarzes_brett.contact_data(id, e_mail, country, city, postcode) "
+                + "SELECT ? + i, 'benchmark', 'Germany', 'Ort ' || SUBSTR(MD5(CAST(i % ? AS TEXT)), 1, 10), "
+                + "LPAD(CAST(i * CAST(7919 AS BIGINT) % ? AS TEXT), 5, '0') "
+                + "FROM generate_series(1, ?) i;")) {
+            statement.setInt(1, FIRST_ID);
+            statement.setInt(2, CITIES);
+            statement.setInt(3, POSTCODES);
+            statement.setInt(4, ads);
+            statement.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO schwarzes_brett.ad(id, title, value, currency, is_basis_of_negotiation, has_price, "
+                                    + "publishing_time, category, creator, contact) "
+                                    + "SELECT id, 'Benchmark ' || id, id % 1000, 'EUR', FALSE, TRUE, NOW(), 2, 1, id "
+                                    + "FROM schwarzes_brett.contact_data WHERE e_mail = 'benchmark';");
+            // Analyze sees the uncommitted rows of its own transaction.
+            statement.execute("ANALYZE schwarzes_brett.contact_data, schwarzes_brett.ad;");
+        }
+    }
+
+    private long measure(Connection connection, String location, boolean previous) throws SQLException {
+        SearchDTO search = new SearchDTO();
+        search.setLocationSearch(location);
+        String query = previous ? PREVIOUS_QUERY : QUERY + AdDAOPsql.locationCondition(search) + ";";
+        logger.info((previous ? "Previous plan" : "Plan") + " for " + location + ":\n" + explain(connection, query, search, previous));
+        long nanos = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            try (PreparedStatement statement = prepare(connection, query, search, previous); ResultSet result = statement.executeQuery()) {
+                result.next();
+            }
+            nanos += System.nanoTime() - start;
+        }
+        return nanos / RUNS;
+    }
+
+    private static String explain(Connection connection, String query, SearchDTO search, boolean previous) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (PreparedStatement statement = prepare(connection, "EXPLAIN (ANALYZE, BUFFERS) " + query, search, previous);
+             ResultSet result = statement.executeQuery()) {
+            while (result.next()) {
+                plan.add(result.getString(1));
+            }
+        }
+        return plan.toString();
+    }
+
+    @SuppressWarnings("checkstyle:MagicNumber")
+    private static PreparedStatement prepare(Connection connection, String query, SearchDTO search, boolean previous) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query);
+        if (previous) {
+            String location = search.getLocationSearch();
+            statement.setString(1, location.toLowerCase());
+            statement.setString(2, location);
+            statement.setString(3, location.toLowerCase());
+            statement.setString(4, location);
+        } else {
+            AdDAOPsql.setLocationParameters(search, statement, 1);
+        }
+        return statement;
+    }
+}
@@ -1,26 +1,199 @@
 package de.schwarzes_brett.data_access.db;
 
 import de.schwarzes_brett.data_access.exception.DataStorageUnavailableException;
+import de.schwarzes_brett.logging.LoggerProducer;
 import de.schwarzes_brett.test_util.integration_test.ITBase;
-import de.schwarzes_brett.test_util.integration_test.ITPerClassExtension;
+import de.schwarzes_brett.test_util.integration_test.ITPerMethodExtension;
 import org.jboss.weld.junit5.auto.EnableAutoWeld;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * @author Jonas Elsper
  */
 @EnableAutoWeld
-@TestInstance(TestInstance.Lifecycle.PER_CLASS)
-@ExtendWith(ITPerClassExtension.class)
+@ExtendWith(ITPerMethodExtension.class)
 public class ConnectionPoolPsqlIT extends ITBase {
+
+    private static final long WAITER_TIMEOUT_MILLIS = 10_000;
+    private static final int BENCHMARK_CYCLES = 2000;
+    private static final int ROUND_TRIP_CYCLES = 100;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private final Logger logger = LoggerProducer.get(ConnectionPoolPsqlIT.class);
+
     @Test
     void checkMoreThanMaxConnections() {
         ConnectionPoolPsql.getInstance().getConnection();
         ConnectionPoolPsql.getInstance().getConnection();
         assertThrows(DataStorageUnavailableException.class, () -> ConnectionPoolPsql.getInstance().getConnection());
     }
+
+    /**
+     * Tests that a borrower waiting on a drained pool gets the connection that is released while it waits.
+     *
+     * @throws Exception If the waiting borrower failed.
+     */
+    @Test
+    void waitingBorrowerGetsReleasedConnection() throws Exception {
+        ConnectionPoolPsql pool = ConnectionPoolPsql.getInstance();
+        Connection first = pool.getConnection();
+        pool.getConnection();
+
+        Field available = ConnectionPoolPsql.class.getDeclaredField("availableConnections");
+        available.setAccessible(true);
+        Semaphore availableConnections = (Semaphore) available.get(pool);
+        CountDownLatch borrowing = new CountDownLatch(1);
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            borrowing.countDown();
+            return pool.getConnection();
+        });
+        assertTrue(borrowing.await(WAITER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS), "The borrower did not start.");
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAITER_TIMEOUT_MILLIS);
+        while (!availableConnections.hasQueuedThreads() && !waiter.isDone() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(availableConnections.hasQueuedThreads(), "The borrower did not wait for a connection.");
+
+        pool.releaseConnection(first);
+        assertSame(first, waiter.get(WAITER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Tests that a connection which broke while it was idle in the pool is detected and replaced when it is borrowed again.
+     *
+     * @throws SQLException If the connection state could not be read.
+     */
+    @Test
+    void closedConnectionIsReplacedOnBorrow() throws SQLException {
+        ConnectionPoolPsql pool = ConnectionPoolPsql.getInstance();
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        first.close();
+        pool.releaseConnection(first);
+        pool.releaseConnection(second);
+
+        Connection borrowed = pool.getConnection();
+        Connection other = pool.getConnection();
+
+        assertFalse(borrowed.isClosed());
+        assertFalse(other.isClosed());
+        assertTrue(borrowed.isValid(VALIDATION_TIMEOUT_SECONDS));
+        assertTrue(other.isValid(VALIDATION_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * Tests that borrowing and releasing a connection that was used recently does not reach the database, so the connection is neither
+     * validated nor rolled back. The database records when the connection last changed its state, which stays the same over all cycles.
+     *
+     * @throws SQLException If the state of the connection could not be read.
+     */
+    @Test
+    void borrowAndReleaseWithoutRoundTrips() throws SQLException {
+        ConnectionPoolPsql pool = ConnectionPoolPsql.getInstance();
+        Connection conn = pool.getConnection();
+        int pid;
+        try (Statement statement = conn.createStatement(); ResultSet result = statement.executeQuery("SELECT pg_backend_pid();")) {
+            assertTrue(result.next());
+            pid = result.getInt(1);
+        }
+        pool.releaseConnection(conn);
+
+        try (Connection monitor = pool.createDedicatedConnection()) {
+            Timestamp lastStateChange = lastStateChange(monitor, pid);
+            for (int i = 0; i < ROUND_TRIP_CYCLES; i++) {
+                Connection borrowed = pool.getConnection();
+                assertSame(conn, borrowed);
+                pool.releaseConnection(borrowed);
+            }
+            assertEquals(lastStateChange, lastStateChange(monitor, pid), "Borrowing or releasing the connection reached the database.");
+        }
+    }
+
+    /**
+     * Compares borrow and release cycles of the pool with the former release path, which validated the connection with a round trip to the
+     * database and rolled it back on every release. The comparison only runs with {@code -Dbenchmark=true}.
+     *
+     * @throws SQLException If a connection could not be validated.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkReleaseWithoutRoundTrips() throws SQLException {
+        ConnectionPoolPsql pool = ConnectionPoolPsql.getInstance();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_CYCLES; i++) {
+            Connection conn = pool.getConnection();
+            pool.releaseConnection(conn);
+        }
+        long pooledNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_CYCLES; i++) {
+            Connection conn = pool.getConnection();
+            assertTrue(conn.isValid(VALIDATION_TIMEOUT_SECONDS));
+            conn.rollback();
+            pool.releaseConnection(conn);
+        }
+        long validatingNanos = System.nanoTime() - start;
+
+        logger.info("Borrow and release cycle: " + pooledNanos / BENCHMARK_CYCLES + " ns, with validation and rollback on release: "
+                    + validatingNanos / BENCHMARK_CYCLES + " ns, saved validation round trips: " + BENCHMARK_CYCLES + ".");
+        assertTrue(pooledNanos < validatingNanos);
+    }
+
+    private static Timestamp lastStateChange(Connection monitor, int pid) throws SQLException {
+        try (PreparedStatement statement = monitor.prepareStatement("SELECT state_change FROM pg_stat_activity WHERE pid = ?;")) {
+            statement.setInt(1, pid);
+            try (ResultSet result = statement.executeQuery()) {
+                assertTrue(result.next(), "The connection is not open.");
+                return result.getTimestamp(1);
+            }
+        }
+    }
+
+    /**
+     * Tests that the pool grows on demand up to its maximum size and is shrunk back to its minimum size once the connections timed out.
+     *
+     * @throws ReflectiveOperationException If the idle timeout could not be set.
+     */
+    @Test
+    void poolGrowsOnDemandAndShrinksToMinimum() throws ReflectiveOperationException {
+        ConnectionPoolPsql pool = ConnectionPoolPsql.getInstance();
+        assertEquals(1, pool.getSize());
+
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        assertEquals(2, pool.getSize());
+        pool.releaseConnection(first);
+        pool.releaseConnection(second);
+        assertEquals(0, pool.shrinkIdleConnections());
+
+        Field idleTimeout = ConnectionPoolPsql.class.getDeclaredField("idleTimeoutMillis");
+        idleTimeout.setAccessible(true);
+        idleTimeout.setLong(pool, -1);
+        assertEquals(1, pool.shrinkIdleConnections());
+        assertEquals(1, pool.getSize());
+        assertNotNull(pool.getConnection());
+    }
 }
@@ -0,0 +1,114 @@
+package de.schwarzes_brett.data_access.db;
+
+import de.schwarzes_brett.data_access.transaction.TransactionFactory;
+import de.schwarzes_brett.data_access.transaction.TransactionPsql;
+import de.schwarzes_brett.test_util.integration_test.ITBase;
+import de.schwarzes_brett.test_util.integration_test.ITPerMethodExtension;
+import org.jboss.weld.junit5.auto.EnableAutoWeld;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the caching of prepared statements by the pooled connections.
+ */
+@EnableAutoWeld
+@ExtendWith(ITPerMethodExtension.class)
+public class StatementCachingConnectionIT extends ITBase {
+
+    private static final String SQL = "SELECT ?::INT + 1;";
+
+    /**
+     * Tests that a statement that has been closed is handed out again for the same SQL text, without the parameters of its previous user.
+     *
+     * @throws SQLException If the statements could not be executed.
+     */
+    @Test
+    void closedStatementIsReused() throws SQLException {
+        try (TransactionPsql transaction = (TransactionPsql) TransactionFactory.produceReadOnly()) {
+            Connection connection = transaction.getConnection();
+            PreparedStatement first;
+            try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+                statement.setInt(1, 1);
+                assertEquals(2, single(statement));
+                first = statement.unwrap(PreparedStatement.class);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+                assertSame(first, statement.unwrap(PreparedStatement.class));
+                assertThrows(SQLException.class, statement::executeQuery);
+            }
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Tests that a statement which is in use is not handed out to a second user, and that a closed statement cannot be used anymore.
+     *
+     * @throws SQLException If the statements could not be executed.
+     */
+    @Test
+    void statementInUseIsNotShared() throws SQLException {
+        try (TransactionPsql transaction = (TransactionPsql) TransactionFactory.produceReadOnly()) {
+            Connection connection = transaction.getConnection();
+            PreparedStatement outer = connection.prepareStatement(SQL);
+            try (PreparedStatement inner = connection.prepareStatement(SQL)) {
+                assertNotSame(outer.unwrap(PreparedStatement.class), inner.unwrap(PreparedStatement.class));
+                outer.setInt(1, 1);
+                inner.setInt(1, 2);
+                assertEquals(2, single(outer));
+                assertEquals(3, single(inner));
+            }
+            outer.close();
+            assertTrue(outer.isClosed());
+            assertThrows(SQLException.class, () -> outer.setInt(1, 1));
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Tests that the least recently used statement is closed if more statements are idle than the cache can hold.
+     *
+     * @throws SQLException If the statements could not be executed.
+     */
+    @Test
+    void leastRecentlyUsedStatementIsEvicted() throws SQLException {
+        Connection connection = StatementCachingConnection.wrap(ConnectionPoolPsql.getInstance().createDedicatedConnection(), 2);
+        PreparedStatement recent;
+        try {
+            recent = prepareAndClose(connection, "SELECT 1;");
+            PreparedStatement eldest = prepareAndClose(connection, "SELECT 2;");
+            prepareAndClose(connection, "SELECT 1;");
+            prepareAndClose(connection, "SELECT 3;");
+            assertTrue(eldest.isClosed());
+            assertFalse(recent.isClosed());
+        } finally {
+            connection.close();
+        }
+        assertTrue(recent.isClosed());
+    }
+
+    private static PreparedStatement prepareAndClose(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeQuery();
+            return statement.unwrap(PreparedStatement.class);
+        }
+    }
+
+    private static int single(PreparedStatement statement) throws SQLException {
+        try (ResultSet result = statement.executeQuery()) {
+            assertTrue(result.next());
+            return result.getInt(1);
+        }
+    }
+}
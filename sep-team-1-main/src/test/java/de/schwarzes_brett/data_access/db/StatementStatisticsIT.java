@@ -0,0 +1,85 @@
+package de.schwarzes_brett.data_access.db;
+
+import de.schwarzes_brett.data_access.transaction.TransactionFactory;
+import de.schwarzes_brett.data_access.transaction.TransactionPsql;
+import de.schwarzes_brett.test_util.integration_test.ITBase;
+import de.schwarzes_brett.test_util.integration_test.ITPerMethodExtension;
+import org.jboss.weld.junit5.auto.EnableAutoWeld;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the recording of statement statistics by the connections of transactions.
+ */
+@EnableAutoWeld
+@ExtendWith(ITPerMethodExtension.class)
+public class StatementStatisticsIT extends ITBase {
+
+    private static final int EXECUTIONS = 3;
+    private static final int ROWS_PER_EXECUTION = 5;
+
+    /**
+     * Tests that executions of a prepared statement are recorded with their rows under the normalized SQL text.
+     *
+     * @throws SQLException If the statements could not be executed.
+     */
+    @Test
+    void preparedStatementsAreRecorded() throws SQLException {
+        StatementStatistics.getInstance().reset();
+        try (TransactionPsql transaction = (TransactionPsql) TransactionFactory.produceReadOnly()) {
+            Connection connection = transaction.getConnection();
+            try (PreparedStatement statement = connection.prepareStatement("SELECT generate_series(1,   ?);")) {
+                for (int i = 0; i < EXECUTIONS; i++) {
+                    statement.setInt(1, ROWS_PER_EXECUTION);
+                    try (ResultSet result = statement.executeQuery()) {
+                        while (result.next()) {
+                            result.getInt(1);
+                        }
+                    }
+                }
+            }
+            transaction.commit();
+        }
+
+        StatementStatistic statistic = find("SELECT generate_series(?, ?);");
+        assertEquals(EXECUTIONS, statistic.executions());
+        assertEquals((long) EXECUTIONS * ROWS_PER_EXECUTION, statistic.rows());
+        assertEquals(EXECUTIONS, statistic.histogram().stream().mapToLong(Long::longValue).sum());
+        assertTrue(statistic.maxNanos() > 0 && statistic.totalNanos() >= statistic.maxNanos());
+    }
+
+    /**
+     * Tests that plain statements which only differ in their literals are recorded together.
+     *
+     * @throws SQLException If the statements could not be executed.
+     */
+    @Test
+    void statementsWithLiteralsAreNormalized() throws SQLException {
+        StatementStatistics.getInstance().reset();
+        try (TransactionPsql transaction = (TransactionPsql) TransactionFactory.produceReadOnly()) {
+            try (Statement statement = transaction.getConnection().createStatement()) {
+                statement.execute("SELECT 'a' = 'b', 42;");
+                statement.execute("SELECT 'it''s' = 'c', 7;");
+            }
+            transaction.commit();
+        }
+
+        assertEquals(2, find("SELECT ? = ?, ?;").executions());
+    }
+
+    private static StatementStatistic find(String sql) {
+        return StatementStatistics.getInstance().getStatistics().stream()
+                                  .filter(statistic -> statistic.sql().equals(sql))
+                                  .findFirst()
+                                  .orElseThrow(() -> new AssertionError("No statistic recorded for " + sql));
+    }
+}
@@ -0,0 +1,178 @@
+package de.schwarzes_brett.data_access.lifecycle;
+
+import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+import de.schwarzes_brett.test_util.integration_test.ITBase;
+import de.schwarzes_brett.test_util.integration_test.ITPerMethodExtension;
+import org.jboss.weld.junit5.auto.EnableAutoWeld;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the migration of the database schema after it has been created.
+ */
+@EnableAutoWeld
+@ExtendWith(ITPerMethodExtension.class)
+public class SchemaMigrationIT extends ITBase {
+
+    private static final Set<String> LOOKUP_INDEXES = Set.of("ad_creator", "ad_category", "image_ad_id", "message_ad_id", "message_author",
+                                                             "message_addressee", "follow_followed_user", "abonnement_ad",
+                                                             "user_verification_secret");
+    // The key of the lock that serializes the migrations of several nodes.
+    private static final long LOCK_KEY = 0x5363_6865_6D61L;
+    private static final long LOCK_WAIT_MILLIS = 2_000;
+    private static final long MIGRATION_TIMEOUT_MILLIS = 30_000;
+    private static final Set<String> ALL_VERSIONS = Set.of("1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+    private static final Function<String, InputStream> RESOURCE_FETCHER =
+            path -> Thread.currentThread().getContextClassLoader().getResourceAsStream(path.replace("WEB-INF/classes", "."));
+
+    /**
+     * Tests that the startup has applied all migrations, and that the first one has created valid lookup indexes.
+     *
+     * @throws SQLException If the catalog could not be read.
+     */
+    @Test
+    void startupAppliesMigrations() throws SQLException {
+        try (Connection connection = ConnectionPoolPsql.getInstance().createDedicatedConnection()) {
+            assertEquals(ALL_VERSIONS, query(connection, "SELECT version FROM schwarzes_brett.schema_migration;"));
+            assertEquals(LOOKUP_INDEXES, validIndexes(connection));
+        }
+    }
+
+    /**
+     * Tests that a migration is applied again after its version was removed, and is not applied twice.
+     *
+     * @throws SQLException If the schema could not be changed.
+     */
+    @Test
+    void missingMigrationIsApplied() throws SQLException {
+        try (Connection connection = ConnectionPoolPsql.getInstance().createDedicatedConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP INDEX schwarzes_brett.ad_creator;");
+            statement.execute("DELETE FROM schwarzes_brett.schema_migration WHERE version = 1;");
+
+            SchemaMigration.init(RESOURCE_FETCHER);
+            SchemaMigration.init(RESOURCE_FETCHER);
+
+            assertEquals(ALL_VERSIONS, query(connection, "SELECT version FROM schwarzes_brett.schema_migration;"));
+            assertEquals(LOOKUP_INDEXES, validIndexes(connection));
+        }
+    }
+
+    /**
+     * Tests that a failed concurrent build of an index of a script is repeated, and that an invalid index of another build is kept.
+     *
+     * @throws SQLException If the schema could not be changed.
+     */
+    @Test
+    void onlyDeclaredInvalidIndexesAreDropped() throws SQLException {
+        try (Connection connection = ConnectionPoolPsql.getInstance().createDedicatedConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP INDEX schwarzes_brett.ad_creator;");
+            // The ads have duplicate creators, so the unique builds fail and leave invalid indexes behind.
+            assertThrows(SQLException.class,
+                         () -> statement.execute("CREATE UNIQUE INDEX CONCURRENTLY ad_creator ON schwarzes_brett.ad (creator);"));
+            assertThrows(SQLException.class,
+                         () -> statement.execute("CREATE UNIQUE INDEX CONCURRENTLY other_build ON schwarzes_brett.ad (creator);"));
+            statement.execute("DELETE FROM schwarzes_brett.schema_migration WHERE version = 1;");
+            try {
+                SchemaMigration.init(RESOURCE_FETCHER);
+
+                assertEquals(LOOKUP_INDEXES, validIndexes(connection));
+                assertEquals(Set.of("other_build"), query(connection, "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                                                                      + "WHERE NOT i.indisvalid;"));
+            } finally {
+                statement.execute("DROP INDEX IF EXISTS schwarzes_brett.other_build;");
+            }
+        }
+    }
+
+    /**
+     * Tests that the indexes built concurrently by a script are found by their names.
+     */
+    @Test
+    void concurrentIndexesAreDeclaredByScript() {
+        List<String> statements = List.of("CREATE INDEX CONCURRENTLY IF NOT EXISTS a ON t (x)",
+                                          "create unique index concurrently \"b\" ON t (y)",
+                                          "CREATE INDEX c ON t (z)",
+                                          "ALTER TABLE t ADD COLUMN IF NOT EXISTS z INT");
+        assertEquals(Set.of("a", "b"), SchemaMigration.concurrentIndexes(statements));
+    }
+
+    /**
+     * Tests that a node waits for the migration lock while another node holds it, and migrates once the lock has been released.
+     *
+     * @throws Exception If the schema could not be changed or the migrating thread could not be joined.
+     */
+    @Test
+    void migrationWaitsForLock() throws Exception {
+        try (Connection holder = ConnectionPoolPsql.getInstance().createDedicatedConnection();
+             Statement statement = holder.createStatement()) {
+            statement.execute("DELETE FROM schwarzes_brett.schema_migration WHERE version = 1;");
+            statement.execute("SELECT pg_advisory_lock(" + LOCK_KEY + ");");
+            Thread migration = new Thread(() -> SchemaMigration.init(RESOURCE_FETCHER));
+            migration.start();
+            migration.join(LOCK_WAIT_MILLIS);
+            assertTrue(migration.isAlive(), "The migration did not wait for the lock.");
+
+            statement.execute("SELECT pg_advisory_unlock(" + LOCK_KEY + ");");
+            migration.join(MIGRATION_TIMEOUT_MILLIS);
+            assertFalse(migration.isAlive(), "The migration did not continue after the lock was released.");
+            assertEquals(ALL_VERSIONS, query(holder, "SELECT version FROM schwarzes_brett.schema_migration;"));
+        }
+    }
+
+    /**
+     * Tests that a script is split at the semicolons that end a line, and that comments are not executed on their own.
+     */
+    @Test
+    void scriptIsSplitIntoStatements() {
+        String script = """
+                -- no-transaction
+
+                /*
+                Comment; with a semicolon.
+                */
+                CREATE INDEX CONCURRENTLY a ON t (x);
+                CREATE INDEX CONCURRENTLY b ON t (y)
+                    WHERE y IS NOT NULL;
+                /* Trailing comment */
+                """;
+        List<String> statements = SchemaMigration.statements(script);
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).endsWith("CREATE INDEX CONCURRENTLY a ON t (x)"));
+        assertEquals("CREATE INDEX CONCURRENTLY b ON t (y)\n    WHERE y IS NOT NULL", statements.get(1));
+    }
+
+    private static Set<String> validIndexes(Connection connection) throws SQLException {
+        Set<String> indexes = query(connection, "SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid "
+                                                + "JOIN pg_namespace n ON n.oid = c.relnamespace "
+                                                + "WHERE n.nspname = 'schwarzes_brett' AND i.indisvalid;");
+        indexes.retainAll(LOOKUP_INDEXES);
+        return indexes;
+    }
+
+    private static Set<String> query(Connection connection, String sql) throws SQLException {
+        Set<String> values = new HashSet<>();
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            while (result.next()) {
+                values.add(result.getString(1));
+            }
+        }
+        return values;
+    }
+}
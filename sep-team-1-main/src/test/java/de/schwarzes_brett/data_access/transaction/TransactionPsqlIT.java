@@ -1,16 +1,37 @@
 package de.schwarzes_brett.data_access.transaction;
 
+import de.schwarzes_brett.data_access.cache.UserDaoCache;
+import de.schwarzes_brett.data_access.config.Config;
+import de.schwarzes_brett.data_access.dao.DAOFactory;
+import de.schwarzes_brett.data_access.db.ConnectionPoolPsql;
+import de.schwarzes_brett.dto.UserDTO;
 import de.schwarzes_brett.test_util.integration_test.ITBase;
 import de.schwarzes_brett.test_util.integration_test.ITPerMethodExtension;
 import org.jboss.weld.junit5.auto.EnableAutoWeld;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -21,6 +42,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 public class TransactionPsqlIT extends ITBase {
 
     private static final int ID = 200;
+    private static final int THREAD_COUNT = 2;
+    private static final long PUBLICATION_TIMEOUT_MILLIS = 10_000;
+    private static final String REPLICA_HOST = "127.0.0.1";
 
     /**
      * Test if the abort method words correctly.
@@ -51,6 +75,212 @@ public class TransactionPsqlIT extends ITBase {
         assertIdExists();
     }
 
+    /**
+     * Tests that commits of concurrent transactions are not serialized. Every transaction waits while it publishes to its cache until all
+     * transactions publish, which only happens if their commits run at the same time.
+     *
+     * @throws Exception If a commit failed.
+     */
+    @Test
+    public void testCommitsPublishConcurrently() throws Exception {
+        CountDownLatch publishing = new CountDownLatch(THREAD_COUNT);
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<Boolean>> overlapped = new ArrayList<>();
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                overlapped.add(executor.submit(() -> commitWhilePublishing(publishing)));
+            }
+            for (Future<Boolean> future : overlapped) {
+                assertTrue(future.get(), "A commit did not run at the same time as the others.");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that a transaction does not cache a user which was invalidated by another transaction after the user was read.
+     */
+    @Test
+    public void testInvalidatedValueIsNotCached() {
+        UserDTO user = userWithId();
+        TransactionPsql t = (TransactionPsql) TransactionFactory.produce();
+        try {
+            assertTrue(DAOFactory.getUserDAO(t).fetchUserById(user));
+            UserDaoCache.getInstance().invalidate(user);
+            t.commit();
+        } finally {
+            t.abort();
+        }
+        assertFalse(UserDaoCache.getInstance().fillUser(userWithId()));
+
+        t = (TransactionPsql) TransactionFactory.produce();
+        try {
+            assertTrue(DAOFactory.getUserDAO(t).fetchUserById(user));
+            t.commit();
+        } finally {
+            t.abort();
+        }
+        assertTrue(UserDaoCache.getInstance().fillUser(userWithId()));
+    }
+
+    /**
+     * Tests that read-only transactions can not write and use read committed isolation, while the following transactions on the same
+     * connection are writable again.
+     *
+     * @throws SQLException is thrown when the connection is lost.
+     */
+    @Test
+    public void testReadOnlyTransaction() throws SQLException {
+        Connection readOnlyConnection;
+        try (TransactionPsql t = (TransactionPsql) TransactionFactory.produceReadOnly()) {
+            readOnlyConnection = t.getConnection();
+            assertTrue(readOnlyConnection.isReadOnly());
+            assertEquals(Connection.TRANSACTION_READ_COMMITTED, readOnlyConnection.getTransactionIsolation());
+            assertIdExists(t);
+            assertThrows(SQLException.class, () -> delete(t));
+        }
+        try (TransactionPsql t = (TransactionPsql) TransactionFactory.produce()) {
+            Connection connection = t.getConnection();
+            assertFalse(connection.isReadOnly());
+            assertEquals(Connection.TRANSACTION_REPEATABLE_READ, connection.getTransactionIsolation());
+        }
+        assertIdExists();
+    }
+
+    /**
+     * Tests that read-only transactions are routed to the replica, unless the session committed a write shortly before. The replica is
+     * simulated by connecting to the test database with another host name.
+     *
+     * @throws ReflectiveOperationException If the replica could not be configured.
+     * @throws SQLException                 is thrown when the connection is lost.
+     */
+    @Test
+    public void testReadOnlyTransactionsUseReplicaUntilWrite() throws ReflectiveOperationException, SQLException {
+        Field field = Config.class.getDeclaredField("configProperties");
+        field.setAccessible(true);
+        Properties properties = (Properties) field.get(Config.getInstance());
+        properties.setProperty("DB_REPLICA_HOST", REPLICA_HOST);
+        ConnectionPoolPsql.getReplicaInstance().init();
+        ReadYourWrites.begin(null);
+        try {
+            try (TransactionPsql t = (TransactionPsql) TransactionFactory.produceReadOnly()) {
+                assertTrue(t.getConnection().getMetaData().getURL().contains(REPLICA_HOST));
+            }
+            try (TransactionPsql t = (TransactionPsql) TransactionFactory.produce()) {
+                try (PreparedStatement statement = t.getConnection().prepareStatement(
+                        "UPDATE schwarzes_brett.user SET nickname = nickname WHERE id = " + ID)) {
+                    statement.executeUpdate();
+                }
+                assertFalse(t.getConnection().getMetaData().getURL().contains(REPLICA_HOST));
+                t.commit();
+            }
+            try (TransactionPsql t = (TransactionPsql) TransactionFactory.produceReadOnly()) {
+                assertFalse(t.getConnection().getMetaData().getURL().contains(REPLICA_HOST));
+            }
+        } finally {
+            assertNotNull(ReadYourWrites.end());
+            ConnectionPoolPsql.getReplicaInstance().destroy();
+            properties.remove("DB_REPLICA_HOST");
+        }
+    }
+
+    /**
+     * Tests that a shared transaction keeps its connection over multiple uses and hands it back to the pool once it is released.
+     *
+     * @throws SQLException is thrown when the connection is lost.
+     */
+    @Test
+    public void testSharedTransactionKeepsConnection() throws SQLException {
+        Transaction shared = TransactionFactory.produceSharedReadOnly();
+        Connection first = ((TransactionPsql) shared).getConnection();
+        assertIdExists((TransactionPsql) shared);
+        shared.commit();
+        Connection second = ((TransactionPsql) shared).getConnection();
+        shared.abort();
+        assertSame(first, second);
+        assertFalse(first.isClosed());
+
+        TransactionFactory.releaseShared(shared);
+        ConnectionPoolPsql.getInstance().getConnection();
+        assertNotNull(ConnectionPoolPsql.getInstance().getConnection());
+    }
+
+    /**
+     * Tests that a write transaction of the thread takes the place of the idle connection of a shared transaction instead of borrowing a
+     * second connection from the same pool, and that the shared transaction borrows a connection again on its next use.
+     *
+     * @throws SQLException is thrown when the connection is lost.
+     */
+    @Test
+    public void testWriteTransactionReplacesIdleSharedConnection() throws SQLException {
+        TransactionPsql shared = (TransactionPsql) TransactionFactory.produceSharedReadOnly();
+        try {
+            Connection first = shared.getConnection();
+            assertIdExists(shared);
+            shared.commit();
+
+            try (TransactionPsql write = (TransactionPsql) TransactionFactory.produce()) {
+                assertIdExists(write);
+                write.commit();
+            }
+            Connection second = shared.getConnection();
+            assertIdExists(shared);
+            shared.commit();
+            assertNotSame(first, second);
+        } finally {
+            TransactionFactory.releaseShared(shared);
+        }
+    }
+
+    /**
+     * Tests that the connection of a shared transaction is kept while it is used, even if another transaction of the thread borrows one.
+     *
+     * @throws SQLException is thrown when the connection is lost.
+     */
+    @Test
+    public void testSharedConnectionInUseIsKept() throws SQLException {
+        TransactionPsql shared = (TransactionPsql) TransactionFactory.produceSharedReadOnly();
+        try {
+            Connection first = shared.getConnection();
+            try (TransactionPsql write = (TransactionPsql) TransactionFactory.produce()) {
+                assertIdExists(write);
+                write.commit();
+            }
+            assertSame(first, shared.getConnection());
+            assertIdExists(shared);
+            shared.commit();
+        } finally {
+            TransactionFactory.releaseShared(shared);
+        }
+    }
+
+    private UserDTO userWithId() {
+        UserDTO user = new UserDTO();
+        user.setId(ID);
+        return user;
+    }
+
+    private boolean commitWhilePublishing(CountDownLatch publishing) {
+        AtomicBoolean overlapped = new AtomicBoolean();
+        TransactionPsql t = (TransactionPsql) TransactionFactory.produce();
+        try {
+            t.registerDAO(() -> {
+                publishing.countDown();
+                try {
+                    overlapped.set(publishing.await(PUBLICATION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertIdExists(t);
+            t.commit();
+        } finally {
+            t.abort();
+        }
+        return overlapped.get();
+    }
+
     private void delete(TransactionPsql t) throws SQLException {
         Connection c = t.getConnection();
         try (PreparedStatement statement = c.prepareStatement("DELETE FROM schwarzes_brett.user where id = " + ID)) {
@@ -73,4 +303,13 @@ public class TransactionPsqlIT extends ITBase {
             t.abort();
         }
     }
+
+    private void assertIdExists(TransactionPsql t) {
+        try (PreparedStatement statement = t.getConnection().prepareStatement("SELECT nickname FROM schwarzes_brett.user where id = " + ID);
+             ResultSet set = statement.executeQuery()) {
+            assertTrue(set.next());
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -6,7 +6,7 @@ import de.schwarzes_brett.data_access.cache.UserDaoCache;
 import jakarta.servlet.ServletContext;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -25,7 +25,7 @@ final class ApplicationLifecycle {
         try {
             Field field = DAOCache.class.getDeclaredField("keyValueStore");
             field.setAccessible(true);
-            ((HashMap<?, ?>) field.get(cache)).clear();
+            ((Map<?, ?>) field.get(cache)).clear();
         } catch (NoSuchFieldException | IllegalAccessException e) {
             throw new Error("Invalid cache field operations specified.");
         }